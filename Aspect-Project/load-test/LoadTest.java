@@ -0,0 +1,175 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load generator for comparing the backend's platform- and virtual-thread
+ * modes. For each client count it starts that many clients on virtual threads, each sending
+ * its next request as soon as the previous one completes, discards a warm-up period, then
+ * reports throughput and latency percentiles for the measured period.
+ * <p>
+ * Run with the JDK's source launcher against a running backend, once per mode:
+ * <pre>
+ * java -jar target/property-finder-0.0.1-SNAPSHOT.jar --spring.threads.virtual.enabled=false
+ * java load-test/LoadTest.java --base-url http://localhost:8080 --token "Bearer ..."
+ *
+ * java -jar target/property-finder-0.0.1-SNAPSHOT.jar --spring.threads.virtual.enabled=true
+ * java load-test/LoadTest.java --base-url http://localhost:8080 --token "Bearer ..."
+ * </pre>
+ * Options, with their defaults: {@code --paths /api/properties/1,/api/search/featured,
+ * /api/reviews/property/1} (requested round-robin), {@code --clients 200,1000,5000},
+ * {@code --duration 30} and {@code --warmup 5} seconds per client count. Thousands of
+ * clients need as many open files on both sides ({@code ulimit -n}), and the generator
+ * should run on a different machine than the backend when the numbers matter.
+ */
+public class LoadTest {
+
+    private static final int SUB_BUCKETS = 64;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        String token = options.get("token");
+        String[] paths = options.getOrDefault("paths",
+                "/api/properties/1,/api/search/featured,/api/reviews/property/1").split(",");
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+
+        List<HttpRequest> requests = new ArrayList<>();
+        for (String path : paths) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path.trim()))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Accept", "application/json")
+                    .header("Accept-Encoding", "gzip")
+                    .GET();
+            if (token != null) {
+                request.header("Authorization", token);
+            }
+            requests.add(request.build());
+        }
+
+        System.out.printf("%8s %10s %10s %10s %10s %10s %10s %8s%n",
+                "clients", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+        for (String clients : options.getOrDefault("clients", "200,1000,5000").split(",")) {
+            Result result = run(Integer.parseInt(clients.trim()), requests, warmup, duration);
+            System.out.printf("%8s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                    clients.trim(), result.requests.sum(), result.requests.sum() / (double) duration.toSeconds(),
+                    result.percentile(0.50), result.percentile(0.90), result.percentile(0.99),
+                    result.max.get() / 1000.0, result.errors.sum());
+        }
+    }
+
+    private static Result run(int clients, List<HttpRequest> requests, Duration warmup, Duration duration)
+            throws InterruptedException {
+        Result result = new Result();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .executor(executor)
+                     .build()) {
+            List<Thread> threads = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                int first = i;
+                threads.add(Thread.ofVirtual().start(() -> {
+                    for (int next = first; ; next++) {
+                        long start = System.nanoTime();
+                        if (start >= measureUntil) {
+                            return;
+                        }
+                        boolean failed;
+                        try {
+                            HttpResponse<Void> response = client.send(requests.get(next % requests.size()),
+                                    HttpResponse.BodyHandlers.discarding());
+                            failed = response.statusCode() >= 400;
+                        } catch (IOException e) {
+                            failed = true;
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        long end = System.nanoTime();
+                        if (start >= measureFrom && end <= measureUntil) {
+                            result.record((end - start) / 1000, failed);
+                        }
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected an option but got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * Latencies in microseconds, in log-linear buckets accurate to about 1.5%.
+     */
+    private static final class Result {
+        final AtomicLongArray buckets = new AtomicLongArray(SUB_BUCKETS * 48);
+        final LongAdder requests = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(long micros, boolean failed) {
+            buckets.incrementAndGet(bucket(micros));
+            requests.increment();
+            if (failed) {
+                errors.increment();
+            }
+            max.accumulate(micros);
+        }
+
+        double percentile(double quantile) {
+            long target = (long) Math.ceil(quantile * requests.sum());
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= target && seen > 0) {
+                    return lowerBound(i) / 1000.0;
+                }
+            }
+            return 0;
+        }
+
+        private static int bucket(long micros) {
+            if (micros < SUB_BUCKETS) {
+                return (int) Math.max(0, micros);
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(micros) - 6;
+            return (shift + 1) * SUB_BUCKETS + (int) ((micros >>> shift) & (SUB_BUCKETS - 1));
+        }
+
+        private static long lowerBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            return (SUB_BUCKETS + (long) (bucket % SUB_BUCKETS)) << (bucket / SUB_BUCKETS - 1);
+        }
+    }
+}
@@ -1,14 +1,10 @@
 package com.example.property_finder.aspect;
 
 import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StopWatch;
-
-import java.util.Arrays;
 
 @Aspect
 @Component
@@ -50,55 +46,4 @@ public class LoggingAspect {
                 e.getCause() != null ? e.getCause() : "NULL");
         logger.error("Exception details: ", e);
     }
-
-    /**
-     * Advice that logs when a method is entered and exited.
-     *
-     * @param joinPoint join point for advice
-     * @return result
-     * @throws Throwable throws IllegalArgumentException
-     */
-    @Around("applicationPackagePointcut() && springBeanPointcut()")
-    public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        Logger logger = LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
-        if (logger.isDebugEnabled()) {
-            logger.debug("Enter: {}.{}() with argument[s] = {}",
-                    joinPoint.getSignature().getDeclaringTypeName(),
-                    joinPoint.getSignature().getName(),
-                    Arrays.toString(joinPoint.getArgs()));
-        }
-
-        StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
-
-        try {
-            Object result = joinPoint.proceed();
-            stopWatch.stop();
-
-            if (logger.isDebugEnabled()) {
-                logger.debug("Exit: {}.{}() with result = {}, execution time = {} ms",
-                        joinPoint.getSignature().getDeclaringTypeName(),
-                        joinPoint.getSignature().getName(),
-                        result,
-                        stopWatch.getTotalTimeMillis());
-            }
-
-            // For service methods exceeding a threshold (e.g., 500ms), log at a higher level
-            if (joinPoint.getSignature().getDeclaringTypeName().contains("service")
-                    && stopWatch.getTotalTimeMillis() > 500) {
-                logger.warn("Long execution time detected for {}.{}(): {} ms",
-                        joinPoint.getSignature().getDeclaringTypeName(),
-                        joinPoint.getSignature().getName(),
-                        stopWatch.getTotalTimeMillis());
-            }
-
-            return result;
-        } catch (IllegalArgumentException e) {
-            logger.error("Illegal argument: {} in {}.{}()",
-                    Arrays.toString(joinPoint.getArgs()),
-                    joinPoint.getSignature().getDeclaringTypeName(),
-                    joinPoint.getSignature().getName());
-            throw e;
-        }
-    }
 }
\ No newline at end of file
@@ -1,12 +1,11 @@
 package com.example.property_finder.aspect;
 
+import com.example.property_finder.dto.ReviewOwnershipDTO;
 import com.example.property_finder.exception.AccessDeniedException;
-import com.example.property_finder.model.Property;
-import com.example.property_finder.model.Review;
-import com.example.property_finder.model.User;
+import com.example.property_finder.security.AuthenticatedPrincipal;
+import com.example.property_finder.security.PrincipalCache;
 import com.example.property_finder.service.PropertyService;
 import com.example.property_finder.service.ReviewService;
-import com.example.property_finder.service.UserService;
 
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
@@ -19,6 +18,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import java.util.Optional;
 
 @Aspect
@@ -28,7 +29,7 @@ public class SecurityAspect {
   private final Logger logger = LoggerFactory.getLogger(SecurityAspect.class);
 
   @Autowired
-  private UserService userService;
+  private PrincipalCache principalCache;
 
   @Autowired
   private PropertyService propertyService;
@@ -53,21 +54,24 @@ public class SecurityAspect {
   public void reviewDeletePointcut() {
   }
 
+  @Pointcut("execution(* com.example.property_finder.controller.MetricsController.*(..))")
+  public void metricsPointcut() {
+  }
+
   // 🔐 Property Update
   @Before("propertyUpdatePointcut() && args(id,..)")
   public void checkPropertyUpdateAuthorization(JoinPoint joinPoint, Long id) {
     logger.debug("Checking authorization for property update, ID: {}", id);
-    User user = getAuthenticatedUser();
+    AuthenticatedPrincipal user = getAuthenticatedUser();
 
-    if (user.getRole() == User.UserRole.ADMIN) {
+    if (user.isAdmin()) {
       logger.debug("Admin access granted for property update");
       return;
     }
 
-    Property property = propertyService.getPropertyById(id).orElse(null);
-    if (property == null || property.getOwner() == null ||
-        !property.getOwner().getId().equals(user.getId())) {
-      logger.warn("Access denied: User {} attempted to update property {}", user.getId(), id);
+    Optional<Long> ownerId = propertyService.getPropertyOwnerId(id);
+    if (ownerId.isEmpty() || !ownerId.get().equals(user.getUserId())) {
+      logger.warn("Access denied: User {} attempted to update property {}", user.getUserId(), id);
       throw new AccessDeniedException("You can only update your own properties");
     }
 
@@ -78,17 +82,16 @@ public class SecurityAspect {
   @Before("propertyDeletePointcut() && args(id)")
   public void checkPropertyDeleteAuthorization(Long id) {
     logger.debug("Checking authorization for property deletion, ID: {}", id);
-    User user = getAuthenticatedUser();
+    AuthenticatedPrincipal user = getAuthenticatedUser();
 
-    if (user.getRole() == User.UserRole.ADMIN) {
+    if (user.isAdmin()) {
       logger.debug("Admin access granted for property deletion");
       return;
     }
 
-    Property property = propertyService.getPropertyById(id).orElse(null);
-    if (property == null || property.getOwner() == null ||
-        !property.getOwner().getId().equals(user.getId())) {
-      logger.warn("Access denied: User {} attempted to delete property {}", user.getId(), id);
+    Optional<Long> ownerId = propertyService.getPropertyOwnerId(id);
+    if (ownerId.isEmpty() || !ownerId.get().equals(user.getUserId())) {
+      logger.warn("Access denied: User {} attempted to delete property {}", user.getUserId(), id);
       throw new AccessDeniedException("You can only delete your own properties");
     }
 
@@ -99,17 +102,16 @@ public class SecurityAspect {
   @Before("reviewUpdatePointcut() && args(reviewId,..)")
   public void checkReviewUpdateAuthorization(Long reviewId) {
     logger.debug("Checking authorization for review update, ID: {}", reviewId);
-    User user = getAuthenticatedUser();
+    AuthenticatedPrincipal user = getAuthenticatedUser();
 
-    if (user.getRole() == User.UserRole.ADMIN) {
+    if (user.isAdmin()) {
       logger.debug("Admin access granted for review update");
       return;
     }
 
-    Review review = reviewService.getReviewById(reviewId).orElse(null);
-    if (review == null || review.getUser() == null ||
-        !review.getUser().getId().equals(user.getId())) {
-      logger.warn("Access denied: User {} attempted to update review {}", user.getId(), reviewId);
+    Optional<Long> authorId = reviewService.getReviewAuthorId(reviewId);
+    if (authorId.isEmpty() || !authorId.get().equals(user.getUserId())) {
+      logger.warn("Access denied: User {} attempted to update review {}", user.getUserId(), reviewId);
       throw new AccessDeniedException("You can only update your own reviews");
     }
 
@@ -120,50 +122,67 @@ public class SecurityAspect {
   @Before("reviewDeletePointcut() && args(id)")
   public void checkReviewDeleteAuthorization(Long id) {
     logger.debug("Checking authorization for review deletion, ID: {}", id);
-    User user = getAuthenticatedUser();
+    AuthenticatedPrincipal user = getAuthenticatedUser();
 
-    if (user.getRole() == User.UserRole.ADMIN) {
+    if (user.isAdmin()) {
       logger.debug("Admin access granted for review deletion");
       return;
     }
 
-    Review review = reviewService.getReviewById(id).orElse(null);
-    if (review == null) {
+    ReviewOwnershipDTO ownership = reviewService.getReviewOwnership(id).orElse(null);
+    if (ownership == null) {
       throw new AccessDeniedException("Review not found");
     }
 
-    if (review.getUser() != null && review.getUser().getId().equals(user.getId())) {
+    if (user.getUserId().equals(ownership.getAuthorId())) {
       logger.debug("Author access granted for review deletion");
       return;
     }
 
-    if (review.getProperty() != null && review.getProperty().getOwner() != null &&
-        review.getProperty().getOwner().getId().equals(user.getId())) {
+    if (user.getUserId().equals(ownership.getPropertyOwnerId())) {
       logger.debug("Property owner access granted for review deletion");
       return;
     }
 
-    logger.warn("Access denied: User {} attempted to delete review {}", user.getId(), id);
+    logger.warn("Access denied: User {} attempted to delete review {}", user.getUserId(), id);
     throw new AccessDeniedException("You can only delete your own reviews or reviews on your properties");
   }
 
-  // ✅ Helper to get Firebase-authenticated user from request
-  private User getAuthenticatedUser() {
+  // 🔐 Metrics: SQL text, endpoint profiles and pool state are for administrators only
+  @Before("metricsPointcut()")
+  public void checkMetricsAuthorization() {
+    AuthenticatedPrincipal user = getAuthenticatedUser();
+
+    if (!user.isAdmin()) {
+      logger.warn("Access denied: User {} attempted to read metrics", user.getUserId());
+      throw new AccessDeniedException("Metrics are only available to administrators");
+    }
+  }
+
+  // ✅ Helper to get Firebase-authenticated user from request, resolved once per request
+  private AuthenticatedPrincipal getAuthenticatedUser() {
     ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
     if (attrs == null) {
       throw new AccessDeniedException("Unable to access request");
     }
 
-    String email = (String) attrs.getRequest().getAttribute("firebaseEmail");
+    HttpServletRequest request = attrs.getRequest();
+    Object resolved = request.getAttribute(PrincipalCache.REQUEST_ATTRIBUTE);
+    if (resolved instanceof AuthenticatedPrincipal) {
+      return (AuthenticatedPrincipal) resolved;
+    }
+
+    String email = (String) request.getAttribute("firebaseEmail");
     if (email == null) {
       throw new AccessDeniedException("User not authenticated");
     }
 
-    Optional<User> userOptional = userService.getUserByEmail(email);
-    if (userOptional.isEmpty()) {
+    Optional<AuthenticatedPrincipal> principal = principalCache.getPrincipal(email);
+    if (principal.isEmpty()) {
       throw new AccessDeniedException("User not found in system");
     }
 
-    return userOptional.get();
+    request.setAttribute(PrincipalCache.REQUEST_ATTRIBUTE, principal.get());
+    return principal.get();
   }
 }
@@ -1,6 +1,7 @@
 package com.example.property_finder.aspect;
 
 import com.example.property_finder.exception.ValidationException;
+import com.example.property_finder.validation.ValidatorRegistry;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
@@ -9,14 +10,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-
 @Aspect
 @Component
 public class ValidationAspect {
 
     private final Logger logger = LoggerFactory.getLogger(ValidationAspect.class);
 
+    private final ValidatorRegistry validatorRegistry;
+
+    public ValidationAspect(ValidatorRegistry validatorRegistry) {
+        this.validatorRegistry = validatorRegistry;
+    }
+
     /**
      * Pointcut for all methods in the PropertyService
      */
@@ -40,37 +45,9 @@ public class ValidationAspect {
     public void validatePropertyBeforeSave(JoinPoint joinPoint, Object property) {
         logger.debug("Validating property before save in: {}", joinPoint.getSignature().getName());
 
-        try {
-            // Extract the property fields using reflection (simplified for example)
-            String title = getFieldValue(property, "title", String.class);
-            String description = getFieldValue(property, "description", String.class);
-            BigDecimal price = getFieldValue(property, "price", BigDecimal.class);
-            String location = getFieldValue(property, "location", String.class);
-
-            // Validate title
-            if (title == null || title.trim().isEmpty()) {
-                throw new ValidationException("Property title cannot be empty");
-            }
-            if (title.length() > 100) {
-                throw new ValidationException("Property title cannot exceed 100 characters");
-            }
-
-            // Validate price
-            if (price == null || price.compareTo(BigDecimal.ZERO) <= 0) {
-                throw new ValidationException("Property price must be greater than zero");
-            }
-
-            // Validate location
-            if (location == null || location.trim().isEmpty()) {
-                throw new ValidationException("Property location cannot be empty");
-            }
-
-            logger.debug("Property validation passed");
-
-        } catch (IllegalAccessException | NoSuchFieldException e) {
-            logger.error("Error during property validation", e);
-            throw new ValidationException("Error validating property data");
-        }
+        validatorRegistry.validate(property);
+
+        logger.debug("Property validation passed");
     }
 
     /**
@@ -102,15 +79,4 @@ public class ValidationAspect {
 
         logger.debug("Review validation passed");
     }
-
-    /**
-     * Helper method to get field value using reflection
-     */
-    @SuppressWarnings("unchecked")
-    private <T> T getFieldValue(Object object, String fieldName, Class<T> fieldType)
-            throws NoSuchFieldException, IllegalAccessException {
-        java.lang.reflect.Field field = object.getClass().getDeclaredField(fieldName);
-        field.setAccessible(true);
-        return (T) field.get(object);
-    }
 }
\ No newline at end of file
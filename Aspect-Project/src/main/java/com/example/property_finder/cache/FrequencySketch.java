@@ -0,0 +1,78 @@
+package com.example.property_finder.cache;
+
+/**
+ * Count-min sketch of 4-bit counters estimating how often each key was accessed recently,
+ * the admission filter of {@link ReadThroughCache}. Counters saturate at 15 and are all
+ * halved once the number of increments reaches ten times the cache size, so old popularity
+ * fades.
+ * <p>
+ * Not thread-safe; the cache only touches it while holding its policy lock.
+ */
+final class FrequencySketch {
+
+    private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+        int capacity = Math.max(maximumSize, 16);
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.table = new long[size];
+        this.tableMask = size - 1;
+        this.sampleSize = 10 * capacity;
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = 15;
+        for (int depth = 0; depth < 4; depth++) {
+            frequency = Math.min(frequency, (int) ((table[indexOf(hash, depth)] >>> offsetOf(hash, depth)) & 0xF));
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int depth = 0; depth < 4; depth++) {
+            int index = indexOf(hash, depth);
+            int offset = offsetOf(hash, depth);
+            if (((table[index] >>> offset) & 0xF) != 0xF) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    // Each depth uses its own row hash and one of the four counters it owns in the word
+    private int indexOf(int hash, int depth) {
+        long h = (hash + SEEDS[depth]) * SEEDS[depth];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    private static int offsetOf(int hash, int depth) {
+        return ((depth << 2) + ((hash >>> (depth << 3)) & 3)) << 2;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
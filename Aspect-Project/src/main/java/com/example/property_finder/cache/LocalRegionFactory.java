@@ -0,0 +1,185 @@
+package com.example.property_finder.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process Hibernate second-level cache whose entity, collection and query result regions
+ * are {@link ReadThroughCache}s, so they get the same W-TinyLFU eviction, TTL and stats as
+ * the application caches. Hibernate runs the read-write locking protocol on top; this class
+ * only stores what it is given.
+ * <p>
+ * The one exception is the soft locks that protocol stores in place of an entry while it is
+ * being written. They are kept in a map of their own until Hibernate's lock timeout has
+ * passed, because a lock lost to eviction or expiry lets a load that read the row before the
+ * write cache the old state.
+ * <p>
+ * The update timestamps region, which tells Hibernate whether a cached query result is still
+ * current, is a plain map: it holds one entry per table and must never evict.
+ */
+public class LocalRegionFactory extends RegionFactoryTemplate {
+
+    private final int maxSize;
+    private final int queryMaxSize;
+    private final long ttlSeconds;
+    private final Map<String, ReadThroughCache<Object, Object>> regions = new ConcurrentHashMap<>();
+
+    public LocalRegionFactory(int maxSize, int queryMaxSize, long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.queryMaxSize = queryMaxSize;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    /**
+     * Cache stats of every region, keyed by region name.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        regions.forEach((name, region) -> stats.put(name, region.getStats()));
+        return stats;
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(ReadThroughCache::invalidateAll);
+        regions.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new RegionStorageAccess(region(regionConfig.getRegionName(), maxSize));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return new RegionStorageAccess(region(regionName, queryMaxSize));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return new TimestampsStorageAccess();
+    }
+
+    private ReadThroughCache<Object, Object> region(String regionName, int regionMaxSize) {
+        return regions.computeIfAbsent(regionName,
+                name -> new ReadThroughCache<>(true, regionMaxSize, ttlSeconds));
+    }
+
+    private final class RegionStorageAccess implements DomainDataStorageAccess {
+        private final ReadThroughCache<Object, Object> cache;
+        private final Map<Object, HeldLock> locks = new ConcurrentHashMap<>();
+        private final AtomicLong nextSweep = new AtomicLong();
+
+        RegionStorageAccess(ReadThroughCache<Object, Object> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            HeldLock held = locks.get(key);
+            return held != null ? held.lock() : cache.getIfPresent(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            if (value instanceof SoftLock) {
+                // Locking and unlocking both store the lock, so each pushes its expiry back
+                long now = nextTimestamp();
+                locks.put(key, new HeldLock(value, now + getTimeout()));
+                cache.invalidate(key);
+                sweepExpiredLocks(now);
+            } else {
+                locks.remove(key);
+                cache.put(key, value);
+            }
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return locks.containsKey(key) || cache.containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            locks.clear();
+            cache.invalidateAll();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            locks.remove(key);
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void release() {
+            locks.clear();
+            cache.invalidateAll();
+        }
+
+        // Hibernate treats a lock past its timeout as absent, so it can go; at most one sweep
+        // per timeout, since locks of deleted rows are never replaced by a load
+        private void sweepExpiredLocks(long now) {
+            long due = nextSweep.get();
+            if (now >= due && nextSweep.compareAndSet(due, now + getTimeout())) {
+                locks.values().removeIf(held -> held.expiresAt() < now);
+            }
+        }
+    }
+
+    private record HeldLock(Object lock, long expiresAt) {
+    }
+
+    private static final class TimestampsStorageAccess implements StorageAccess {
+        private final Map<Object, Object> timestamps = new ConcurrentHashMap<>();
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return timestamps.get(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            timestamps.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return timestamps.containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            timestamps.clear();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            timestamps.remove(key);
+        }
+
+        @Override
+        public void release() {
+            timestamps.clear();
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package com.example.property_finder.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Size- and TTL-bounded read-through cache with W-TinyLFU eviction, the policy Caffeine
+ * uses: new entries enter a small LRU window, and an entry leaving the window is only kept
+ * if a {@link FrequencySketch} says it is used more often than the entry it would displace
+ * from the main segmented LRU. A burst of one-off keys therefore cannot flush out the
+ * popular ones.
+ * <p>
+ * Lookups are a {@link ConcurrentHashMap} read. The eviction order is only updated when
+ * the policy lock is free, so a hit never waits; a few lost reorderings only make the
+ * policy slightly less precise. Concurrent misses for the same key share a single load,
+ * so a hot entry expiring does not send a burst of identical queries to the database.
+ * Loaders returning null are not cached. {@link #getAll} loads all the misses of a batch
+ * with one call, and {@link #getIfPresent} and {@link #put} skip the loader for callers
+ * that load values themselves, such as {@link LocalRegionFactory}.
+ * <p>
+ * Every invalidation bumps a generation, and a load only stores its value if no
+ * invalidation happened since it started, so a load racing a change never caches the
+ * state from before it.
+ */
+public final class ReadThroughCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final boolean enabled;
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+    private final long ttlNanos;
+
+    private final Map<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so that a load racing with one does not cache stale data
+    private final AtomicLong generation = new AtomicLong();
+
+    // Guarded by policyLock
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final AccessOrderQueue<K, V> window = new AccessOrderQueue<>();
+    private final AccessOrderQueue<K, V> probation = new AccessOrderQueue<>();
+    private final AccessOrderQueue<K, V> protectedSegment = new AccessOrderQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ReadThroughCache(boolean enabled, int maximumSize, long ttlSeconds) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.enabled = enabled;
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.protectedMaximum = (maximumSize - windowMaximum) * 4 / 5;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Returns the cached value for the key, loading it with the loader on a miss. If another
+     * thread is already loading the key, waits for that load instead of starting another.
+     * Exceptions thrown by the loader are rethrown to every caller waiting on it.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+
+        Node<K, V> node = data.get(key);
+        if (node != null && System.nanoTime() - node.loadedAt < ttlNanos) {
+            hits.increment();
+            recordAccess(node);
+            return node.value;
+        }
+        misses.increment();
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            coalescedLoads.increment();
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        long loadGeneration = generation.get();
+        try {
+            V value = loader.apply(key);
+            loads.increment();
+            if (value != null) {
+                store(key, value, loadGeneration);
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            loadFailures.increment();
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    /**
+     * Returns the values of the keys, in the order given, loading all the missing ones with a
+     * single call of the loader, which returns the values it found keyed by key. Keys the
+     * loader has no value for are left out. Misses are not coalesced with other loads.
+     */
+    public Map<K, V> getAll(Collection<? extends K> keys,
+                            Function<? super List<K>, ? extends Map<? extends K, ? extends V>> loader) {
+        Map<K, V> result = new LinkedHashMap<>();
+        List<K> missing = new ArrayList<>();
+        for (K key : new LinkedHashSet<>(keys)) {
+            V value = getIfPresent(key);
+            result.put(key, value); // Keeps the requested order
+            if (value == null) {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long loadGeneration = generation.get();
+        Map<? extends K, ? extends V> loaded;
+        try {
+            loaded = loader.apply(missing);
+            loads.increment();
+        } catch (RuntimeException | Error e) {
+            loadFailures.increment();
+            throw e;
+        }
+        for (K key : missing) {
+            V value = loaded.get(key);
+            if (value == null) {
+                result.remove(key);
+            } else {
+                result.put(key, value);
+                if (enabled) {
+                    store(key, value, loadGeneration);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached value, or null if the key is absent or expired. Never loads.
+     */
+    public V getIfPresent(K key) {
+        if (!enabled) {
+            return null;
+        }
+
+        Node<K, V> node = data.get(key);
+        if (node != null && System.nanoTime() - node.loadedAt < ttlNanos) {
+            hits.increment();
+            recordAccess(node);
+            return node.value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches the value, replacing the current one, for callers that load values themselves.
+     * Null values are ignored.
+     */
+    public void put(K key, V value) {
+        if (enabled && value != null) {
+            store(key, value, generation.get());
+        }
+    }
+
+    public boolean containsKey(K key) {
+        Node<K, V> node = data.get(key);
+        return node != null && System.nanoTime() - node.loadedAt < ttlNanos;
+    }
+
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        invalidations.increment();
+        // A later reader must not join a load that started before the change
+        loading.remove(key);
+        policyLock.lock();
+        try {
+            Node<K, V> node = data.remove(key);
+            if (node != null) {
+                queueOf(node).remove(node);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Drops every entry whose value matches, for callers that cannot name the keys.
+     */
+    public void invalidateIf(Predicate<? super V> predicate) {
+        generation.incrementAndGet();
+        invalidations.increment();
+        policyLock.lock();
+        try {
+            for (Node<K, V> node : data.values()) {
+                if (predicate.test(node.value)) {
+                    remove(node);
+                }
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        invalidations.increment();
+        loading.clear();
+        policyLock.lock();
+        try {
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", data.size());
+        stats.put("maxSize", maximumSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("loads", loads.sum());
+        stats.put("loadFailures", loadFailures.sum());
+        stats.put("coalescedLoads", coalescedLoads.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("admissionRejections", rejections.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    private void recordAccess(Node<K, V> node) {
+        if (!policyLock.tryLock()) {
+            return;
+        }
+        try {
+            // The node may have been evicted or replaced since it was read
+            if (node.queue >= 0 && data.get(node.key) == node) {
+                onAccess(node);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    // The generation is checked under the lock, which invalidations also take after bumping
+    // it, so either the store sees the bump or the invalidation removes what it stored
+    private void store(K key, V value, long loadGeneration) {
+        policyLock.lock();
+        try {
+            if (generation.get() != loadGeneration) {
+                return;
+            }
+            Node<K, V> existing = data.get(key);
+            if (existing != null) {
+                queueOf(existing).remove(existing);
+            }
+            Node<K, V> node = new Node<>(key, value, System.nanoTime());
+            data.put(key, node);
+            node.queue = WINDOW;
+            window.addLast(node);
+            sketch.increment(key);
+            evict();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void onAccess(Node<K, V> node) {
+        sketch.increment(node.key);
+        if (node.queue == PROBATION) {
+            probation.remove(node);
+            node.queue = PROTECTED;
+            protectedSegment.addLast(node);
+            while (protectedSegment.size > protectedMaximum) {
+                Node<K, V> demoted = protectedSegment.pollFirst();
+                demoted.queue = PROBATION;
+                probation.addLast(demoted);
+            }
+        } else {
+            queueOf(node).moveToLast(node);
+        }
+    }
+
+    /**
+     * Moves entries overflowing the window into probation, then, while the cache is over
+     * its size, lets the newest probation entry (the candidate) and the oldest (the victim)
+     * compete on estimated frequency and evicts the loser.
+     */
+    private void evict() {
+        while (window.size > windowMaximum) {
+            Node<K, V> node = window.pollFirst();
+            node.queue = PROBATION;
+            probation.addLast(node);
+        }
+
+        while (data.size() > maximumSize) {
+            Node<K, V> victim = probation.peekFirst();
+            Node<K, V> candidate = probation.peekLast();
+            if (victim == null) {
+                victim = protectedSegment.size > 0 ? protectedSegment.peekFirst() : window.peekFirst();
+                remove(victim);
+                evictions.increment();
+            } else if (victim != candidate && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                remove(candidate);
+                rejections.increment();
+            } else {
+                remove(victim);
+                evictions.increment();
+            }
+        }
+    }
+
+    private void remove(Node<K, V> node) {
+        queueOf(node).remove(node);
+        data.remove(node.key, node);
+    }
+
+    private AccessOrderQueue<K, V> queueOf(Node<K, V> node) {
+        return switch (node.queue) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            default -> protectedSegment;
+        };
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final long loadedAt;
+        int queue = -1; // -1 once removed from the policy
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value, long loadedAt) {
+            this.key = key;
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * Intrusive doubly linked list, least recently used first.
+     */
+    private static final class AccessOrderQueue<K, V> {
+        private Node<K, V> head;
+        private Node<K, V> tail;
+        int size;
+
+        Node<K, V> peekFirst() {
+            return head;
+        }
+
+        Node<K, V> peekLast() {
+            return tail;
+        }
+
+        Node<K, V> pollFirst() {
+            Node<K, V> node = head;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != tail) {
+                int queue = node.queue;
+                remove(node);
+                node.queue = queue;
+                addLast(node);
+            }
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.queue = -1;
+            size--;
+        }
+
+        void clear() {
+            for (Node<K, V> node = head; node != null; ) {
+                Node<K, V> next = node.next;
+                node.prev = null;
+                node.next = null;
+                node.queue = -1;
+                node = next;
+            }
+            head = null;
+            tail = null;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.property_finder.config;
+
+import com.example.property_finder.metrics.ConnectionPoolMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DataSourcePoolConfig {
+
+    /**
+     * Reports each pool's waits, usage and timeouts to ConnectionPoolMetrics. The tracker has
+     * to be set before the pool starts, which happens on the first connection request.
+     */
+    @Bean
+    public static BeanPostProcessor hikariMetricsPostProcessor(ObjectProvider<ConnectionPoolMetrics> poolMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && dataSource.getHikariPoolMXBean() == null) {
+                    dataSource.setMetricsTrackerFactory(poolMetrics.getObject().trackerFactory(dataSource));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.property_finder.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to the replica and
+ * everything else, including work outside a transaction, to the primary.
+ * <p>
+ * For a short window after a read-write transaction of this instance completes, read-only
+ * work also goes to the primary. Caches are invalidated when a write commits and refilled
+ * by the next read, and a replica that has not replayed the write yet would refill them with
+ * the old rows until the next change. The window should exceed the replica's usual lag.
+ * <p>
+ * The route is decided when a connection is first needed, so this data source must be
+ * wrapped in a LazyConnectionDataSourceProxy: the transaction manager takes its connection
+ * before the transaction's read-only flag is published.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {PRIMARY, REPLICA}
+
+    private final long primaryAfterWriteNanos;
+    private volatile LongSupplier nanoTime = System::nanoTime;
+    private volatile long lastWriteNanos;
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder readsOnPrimaryAfterWrite = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long primaryAfterWriteMillis) {
+        this.primaryAfterWriteNanos = TimeUnit.MILLISECONDS.toNanos(primaryAfterWriteMillis);
+        this.lastWriteNanos = nanoTime.getAsLong() - primaryAfterWriteNanos;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            lastWriteNanos = nanoTime.getAsLong();
+                        }
+                    }
+                });
+            }
+            primaryConnections.increment();
+            return Route.PRIMARY;
+        }
+
+        if (nanoTime.getAsLong() - lastWriteNanos < primaryAfterWriteNanos) {
+            readsOnPrimaryAfterWrite.increment();
+            primaryConnections.increment();
+            return Route.PRIMARY;
+        }
+        replicaConnections.increment();
+        return Route.REPLICA;
+    }
+
+    /**
+     * Replaces the clock the window after a write is measured with, forgetting earlier writes.
+     * For tests, which advance a clock of their own instead of waiting the window out.
+     */
+    void setNanoTime(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.lastWriteNanos = nanoTime.getAsLong() - primaryAfterWriteNanos;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("primaryConnections", primaryConnections.sum());
+        stats.put("replicaConnections", replicaConnections.sum());
+        stats.put("readsOnPrimaryAfterWrite", readsOnPrimaryAfterWrite.sum());
+        stats.put("primaryAfterWriteMs", TimeUnit.NANOSECONDS.toMillis(primaryAfterWriteNanos));
+        return stats;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.property_finder.config;
+
+import com.example.property_finder.cache.LocalRegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public LocalRegionFactory localRegionFactory(@Value("${app.cache.l2.max-size:10000}") int maxSize,
+                                                 @Value("${app.cache.l2.query-max-size:1000}") int queryMaxSize,
+                                                 @Value("${app.cache.l2.ttl-seconds:3600}") long ttlSeconds) {
+        return new LocalRegionFactory(maxSize, queryMaxSize, ttlSeconds);
+    }
+
+    /**
+     * Turns on Hibernate's second-level and query caches for the entities and queries that
+     * opt in with {@code @Cache} and the cacheable query hint, stored in the local region
+     * factory.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheHibernateProperties(
+            LocalRegionFactory regionFactory, @Value("${app.cache.l2.enabled:true}") boolean enabled) {
+        return properties -> {
+            if (!enabled) {
+                properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+                return;
+            }
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            // Location.subLocations is the inverse side of parentLocation, so a child created or
+            // moved through its parent reference must still drop the parent's cached collection
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.property_finder.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves every entity id sequence past the largest id already in its table at startup.
+ * <p>
+ * The entities used to take IDENTITY ids, so databases created before the switch to pooled
+ * sequences hold rows the sequences know nothing about, and a schema update creates the
+ * sequences at 1. A sequence whose next block would start at or below MAX(id) is restarted
+ * just above it; one already ahead is left alone, at the cost of the block read to check
+ * it. This runs once all beans exist, before the web server takes requests.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.align-sequences", havingValue = "true", matchIfMissing = true)
+public class SequenceAlignment implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceAlignment.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SequenceAlignment(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        SequenceSupport sequenceSupport = sessionFactory.getJdbcServices().getDialect().getSequenceSupport();
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+                // Subclasses share the root's sequence and rows
+                if (persister.getEntityName().equals(persister.getRootEntityName())
+                        && persister.getGenerator() instanceof SequenceStyleGenerator generator
+                        && generator.getDatabaseStructure().isPhysicalSequence()) {
+                    align(entityManager, sequenceSupport, persister,
+                            generator.getDatabaseStructure().getPhysicalName().render());
+                }
+            });
+            entityManager.getTransaction().commit();
+        } finally {
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            entityManager.close();
+        }
+    }
+
+    private void align(EntityManager entityManager, SequenceSupport sequenceSupport, EntityPersister persister,
+                       String sequence) {
+        Number maxId = (Number) entityManager.createQuery("SELECT MAX(e." + persister.getIdentifierPropertyName()
+                + ") FROM " + persister.getEntityName() + " e").getSingleResult();
+        if (maxId == null) {
+            return;
+        }
+
+        // With the pooled-lo optimizer the value read is the first id of a block
+        long next = ((Number) entityManager.createNativeQuery(sequenceSupport.getSequenceNextValString(sequence))
+                .getSingleResult()).longValue();
+        if (next > maxId.longValue()) {
+            return;
+        }
+
+        long restartAt = maxId.longValue() + 1;
+        entityManager.createNativeQuery("ALTER SEQUENCE " + sequence + " RESTART WITH " + restartAt).executeUpdate();
+        logger.warn("Sequence {} was behind the largest {} id {}; restarted at {}",
+                sequence, persister.getEntityName(), maxId, restartAt);
+    }
+}
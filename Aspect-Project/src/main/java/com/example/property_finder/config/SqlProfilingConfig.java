@@ -0,0 +1,33 @@
+package com.example.property_finder.config;
+
+import com.example.property_finder.metrics.SqlProfiler;
+import com.example.property_finder.metrics.SqlProfilingSessionListener;
+import com.example.property_finder.metrics.SqlProfilingStatementInspector;
+import com.example.property_finder.metrics.SqlProfilingStatistics;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SqlProfilingConfig {
+
+    /**
+     * Registers the Hibernate hooks feeding the per-request SQL profiler. Statistics are only
+     * switched on when the profiler is enabled, and their per-session log line stays off.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlProfilingHibernateProperties(SqlProfiler sqlProfiler) {
+        return properties -> {
+            if (!sqlProfiler.isEnabled()) {
+                return;
+            }
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlProfilingStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlProfilingSessionListener.class.getName());
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.STATS_BUILDER, (StatisticsFactory) SqlProfilingStatistics::new);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+}
@@ -131,6 +131,8 @@ public class BookmarkController {
         dto.setArea(property.getArea());
         dto.setPropertyType(property.getPropertyType());
         dto.setListingType(property.getListingType());
+        dto.setAverageRating(property.getAverageRating());
+        dto.setReviewCount(property.getReviewCount());
 
         // Set owner information if available
         User owner = property.getOwner();
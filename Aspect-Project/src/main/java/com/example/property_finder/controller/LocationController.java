@@ -79,9 +79,10 @@ public class LocationController {
   public ResponseEntity<List<LocationDTO>> getNearbyLocations(
       @RequestParam Double latitude,
       @RequestParam Double longitude,
-      @RequestParam(defaultValue = "5.0") Double radiusInKm) {
+      @RequestParam(defaultValue = "5.0") Double radiusInKm,
+      @RequestParam(required = false) Integer limit) {
 
-    List<Location> locations = locationService.getNearbyLocations(latitude, longitude, radiusInKm);
+    List<Location> locations = locationService.getNearbyLocations(latitude, longitude, radiusInKm, limit);
     List<LocationDTO> locationDTOs = convertToDTOList(locations);
     return ResponseEntity.ok(locationDTOs);
   }
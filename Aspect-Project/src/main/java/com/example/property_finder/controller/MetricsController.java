@@ -0,0 +1,113 @@
+package com.example.property_finder.controller;
+
+import com.example.property_finder.cache.LocalRegionFactory;
+import com.example.property_finder.config.ReadWriteRoutingDataSource;
+import com.example.property_finder.index.FeaturedRanking;
+import com.example.property_finder.metrics.ConnectionPoolMetrics;
+import com.example.property_finder.metrics.MethodMetrics;
+import com.example.property_finder.metrics.SqlProfiler;
+import com.example.property_finder.security.PrincipalCache;
+import com.example.property_finder.security.TokenCache;
+import com.example.property_finder.service.FeaturedPropertiesCache;
+import com.example.property_finder.service.PropertyCache;
+import com.example.property_finder.service.ReviewStatsCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+  private final TokenCache tokenCache;
+  private final PrincipalCache principalCache;
+  private final MethodMetrics methodMetrics;
+  private final SqlProfiler sqlProfiler;
+  private final ReviewStatsCache reviewStatsCache;
+  private final PropertyCache propertyCache;
+  private final LocalRegionFactory regionFactory;
+  private final FeaturedPropertiesCache featuredPropertiesCache;
+  private final FeaturedRanking featuredRanking;
+  private final ConnectionPoolMetrics connectionPoolMetrics;
+  // Null unless reads are routed to a replica
+  private final ReadWriteRoutingDataSource routingDataSource;
+
+  public MetricsController(TokenCache tokenCache, PrincipalCache principalCache, MethodMetrics methodMetrics,
+      SqlProfiler sqlProfiler, ReviewStatsCache reviewStatsCache, PropertyCache propertyCache,
+      LocalRegionFactory regionFactory, FeaturedPropertiesCache featuredPropertiesCache,
+      FeaturedRanking featuredRanking, ConnectionPoolMetrics connectionPoolMetrics,
+      ObjectProvider<ReadWriteRoutingDataSource> routingDataSource) {
+    this.tokenCache = tokenCache;
+    this.principalCache = principalCache;
+    this.methodMetrics = methodMetrics;
+    this.sqlProfiler = sqlProfiler;
+    this.reviewStatsCache = reviewStatsCache;
+    this.propertyCache = propertyCache;
+    this.regionFactory = regionFactory;
+    this.featuredPropertiesCache = featuredPropertiesCache;
+    this.featuredRanking = featuredRanking;
+    this.connectionPoolMetrics = connectionPoolMetrics;
+    this.routingDataSource = routingDataSource.getIfAvailable();
+  }
+
+  @GetMapping("/token-cache")
+  public ResponseEntity<Map<String, Object>> getTokenCacheStats() {
+    return ResponseEntity.ok(tokenCache.getStats());
+  }
+
+  @GetMapping("/principal-cache")
+  public ResponseEntity<Map<String, Object>> getPrincipalCacheStats() {
+    return ResponseEntity.ok(principalCache.getStats());
+  }
+
+  @GetMapping("/methods")
+  public ResponseEntity<List<Map<String, Object>>> getMethodStats(
+      @RequestParam(defaultValue = "50") int limit) {
+    return ResponseEntity.ok(methodMetrics.getStats(Math.max(0, limit)));
+  }
+
+  @GetMapping("/sql")
+  public ResponseEntity<Map<String, Object>> getSqlProfile() {
+    return ResponseEntity.ok(sqlProfiler.getStats());
+  }
+
+  @GetMapping("/review-stats-cache")
+  public ResponseEntity<Map<String, Object>> getReviewStatsCacheStats() {
+    return ResponseEntity.ok(reviewStatsCache.getStats());
+  }
+
+  @GetMapping("/property-cache")
+  public ResponseEntity<Map<String, Object>> getPropertyCacheStats() {
+    return ResponseEntity.ok(propertyCache.getStats());
+  }
+
+  @GetMapping("/l2-cache")
+  public ResponseEntity<Map<String, Object>> getSecondLevelCacheStats() {
+    return ResponseEntity.ok(regionFactory.getStats());
+  }
+
+  @GetMapping("/featured-cache")
+  public ResponseEntity<Map<String, Object>> getFeaturedCacheStats() {
+    return ResponseEntity.ok(featuredPropertiesCache.getStats());
+  }
+
+  @GetMapping("/featured-ranking")
+  public ResponseEntity<Map<String, Object>> getFeaturedRankingStats() {
+    return ResponseEntity.ok(featuredRanking.getStats());
+  }
+
+  @GetMapping("/db-pool")
+  public ResponseEntity<Map<String, Object>> getConnectionPoolStats() {
+    Map<String, Object> stats = connectionPoolMetrics.getStats();
+    if (routingDataSource != null) {
+      stats.put("routing", routingDataSource.getStats());
+    }
+    return ResponseEntity.ok(stats);
+  }
+}
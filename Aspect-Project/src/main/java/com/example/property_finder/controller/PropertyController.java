@@ -1,15 +1,25 @@
 package com.example.property_finder.controller;
 
+import com.example.property_finder.dto.CursorPageDTO;
 import com.example.property_finder.dto.PropertyDTO;
+import com.example.property_finder.dto.PropertyImportJobDTO;
+import com.example.property_finder.dto.PropertySearchDTO;
+import com.example.property_finder.dto.PropertyVersionDTO;
 import com.example.property_finder.model.Property;
 import com.example.property_finder.model.User;
+import com.example.property_finder.service.PropertyImportService;
 import com.example.property_finder.service.PropertyService;
+import com.example.property_finder.service.SearchService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.net.URI;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,25 +28,39 @@ import java.util.Optional;
 public class PropertyController {
 
     private final PropertyService propertyService;
+    private final SearchService searchService;
+    private final PropertyImportService propertyImportService;
 
-    public PropertyController(PropertyService propertyService) {
+    public PropertyController(PropertyService propertyService, SearchService searchService,
+                              PropertyImportService propertyImportService) {
         this.propertyService = propertyService;
+        this.searchService = searchService;
+        this.propertyImportService = propertyImportService;
     }
 
     @GetMapping
-    public ResponseEntity<List<PropertyDTO>> getAllProperties() {
-        List<Property> properties = propertyService.getAllProperties();
-        List<PropertyDTO> propertyDTOs = convertToDTOList(properties);
+    public ResponseEntity<List<PropertyDTO>> getAllProperties(WebRequest request) {
+        if (notModified(request, propertyService.getAllPropertiesVersion())) {
+            return null;
+        }
+        List<PropertyDTO> propertyDTOs = propertyService.getAllPropertyDTOs();
         return ResponseEntity.ok(propertyDTOs);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PropertyDTO> getPropertyById(@PathVariable Long id) {
-        Optional<Property> propertyOptional = propertyService.getPropertyById(id);
+    public ResponseEntity<PropertyDTO> getPropertyById(@PathVariable Long id, WebRequest request) {
+        Optional<PropertyVersionDTO> version = propertyService.getPropertyVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (notModified(request, version.get())) {
+            return null;
+        }
+
+        Optional<PropertyDTO> propertyOptional = propertyService.getPropertyDTOById(id);
 
         if (propertyOptional.isPresent()) {
-            PropertyDTO propertyDTO = convertToDTO(propertyOptional.get());
-            return ResponseEntity.ok(propertyDTO);
+            return ResponseEntity.ok(propertyOptional.get());
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -49,19 +73,59 @@ public class PropertyController {
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) Integer bedrooms,
             @RequestParam(required = false) String propertyType,
-            @RequestParam(required = false) String listingType) {
+            @RequestParam(required = false) String listingType,
+            WebRequest request) {
+
+        if (notModified(request, propertyService.getAllPropertiesVersion())) {
+            return null;
+        }
 
-        List<Property> properties = propertyService.searchProperties(
+        List<PropertyDTO> propertyDTOs = propertyService.searchPropertyDTOs(
                 location, minPrice, maxPrice, bedrooms, propertyType, listingType);
 
-        List<PropertyDTO> propertyDTOs = convertToDTOList(properties);
         return ResponseEntity.ok(propertyDTOs);
     }
 
+    @GetMapping("/search/page")
+    public ResponseEntity<CursorPageDTO<PropertyDTO>> searchPropertiesPage(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer bedrooms,
+            @RequestParam(required = false) String propertyType,
+            @RequestParam(required = false) String listingType,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String sortDirection,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+
+        if (notModified(request, propertyService.getAllPropertiesVersion())) {
+            return null;
+        }
+
+        PropertySearchDTO searchDTO = new PropertySearchDTO();
+        searchDTO.setLocation(location);
+        searchDTO.setMinPrice(minPrice);
+        searchDTO.setMaxPrice(maxPrice);
+        searchDTO.setMinBedrooms(bedrooms);
+        searchDTO.setPropertyType(propertyType);
+        searchDTO.setListingType(listingType);
+        searchDTO.setSortBy(sortBy);
+        searchDTO.setSortDirection(sortDirection);
+        searchDTO.setCursor(cursor);
+        searchDTO.setLimit(limit);
+
+        CursorPageDTO<Property> page = searchService.searchPropertiesPage(searchDTO);
+        return ResponseEntity.ok(page.map(this::convertToDTO));
+    }
+
     @GetMapping("/byOwner/{ownerId}")
-    public ResponseEntity<List<PropertyDTO>> getPropertiesByOwner(@PathVariable Long ownerId) {
-        List<Property> properties = propertyService.getPropertiesByOwner(ownerId);
-        List<PropertyDTO> propertyDTOs = convertToDTOList(properties);
+    public ResponseEntity<List<PropertyDTO>> getPropertiesByOwner(@PathVariable Long ownerId, WebRequest request) {
+        if (notModified(request, propertyService.getOwnerPropertiesVersion(ownerId))) {
+            return null;
+        }
+        List<PropertyDTO> propertyDTOs = propertyService.getPropertyDTOsByOwner(ownerId);
         return ResponseEntity.ok(propertyDTOs);
     }
 
@@ -75,6 +139,38 @@ public class PropertyController {
         return new ResponseEntity<>(convertToDTO(savedProperty), HttpStatus.CREATED);
     }
 
+    /**
+     * Starts a bulk import of a JSON array or a CSV file of listings. The body is streamed, so
+     * the upload can be larger than memory; rows are imported in chunks in the background and
+     * the returned job is polled for progress and row-level errors.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<PropertyImportJobDTO> importProperties(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(required = false) Long ownerId,
+            InputStream body) {
+
+        PropertyImportService.Format format = contentType.toLowerCase().contains("csv")
+                ? PropertyImportService.Format.CSV
+                : PropertyImportService.Format.JSON;
+        PropertyImportJobDTO job = propertyImportService.startImport(body, format, ownerId);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/properties/import/" + job.getJobId()))
+                .body(job);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<PropertyImportJobDTO> getImportJob(@PathVariable String jobId) {
+        Optional<PropertyImportJobDTO> job = propertyImportService.getJob(jobId);
+
+        if (job.isPresent()) {
+            return ResponseEntity.ok(job.get());
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<PropertyDTO> updateProperty(
             @PathVariable Long id,
@@ -102,6 +198,16 @@ public class PropertyController {
         }
     }
 
+    /**
+     * Sets the ETag header from the version and reports whether the client's copy is
+     * current, in which case the response has become a 304 and the handler must return null
+     * without building the body. No Last-Modified is sent: deleting a listing or review can
+     * move the latest change time backwards, and only the ETag reflects that.
+     */
+    private boolean notModified(WebRequest request, PropertyVersionDTO version) {
+        return request.checkNotModified(version.getETag());
+    }
+
     // Helper methods for DTO conversion
     private PropertyDTO convertToDTO(Property property) {
         PropertyDTO dto = new PropertyDTO();
@@ -115,6 +221,8 @@ public class PropertyController {
         dto.setArea(property.getArea());
         dto.setPropertyType(property.getPropertyType());
         dto.setListingType(property.getListingType());
+        dto.setAverageRating(property.getAverageRating());
+        dto.setReviewCount(property.getReviewCount());
 
         // Set owner information if available
         User owner = property.getOwner();
@@ -144,14 +252,4 @@ public class PropertyController {
 
         return property;
     }
-
-    private List<PropertyDTO> convertToDTOList(List<Property> properties) {
-        List<PropertyDTO> dtos = new ArrayList<>();
-
-        for (Property property : properties) {
-            dtos.add(convertToDTO(property));
-        }
-
-        return dtos;
-    }
 }
\ No newline at end of file
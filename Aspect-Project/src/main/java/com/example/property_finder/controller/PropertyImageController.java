@@ -83,6 +83,25 @@ public class PropertyImageController {
         }
     }
 
+    @PostMapping("/property/{propertyId}/batch")
+    public ResponseEntity<List<PropertyImageDTO>> createImages(
+            @PathVariable Long propertyId,
+            @RequestBody List<PropertyImageDTO> imageDTOs) {
+        List<PropertyImage> images = new ArrayList<>(imageDTOs.size());
+        for (PropertyImageDTO imageDTO : imageDTOs) {
+            images.add(new PropertyImage(null, imageDTO.getImageUrl(), imageDTO.getDescription(),
+                    imageDTO.getIsPrimary()));
+        }
+
+        Optional<List<PropertyImage>> createdImages = propertyImageService.addImages(propertyId, images);
+
+        if (createdImages.isPresent()) {
+            return new ResponseEntity<>(convertToDTOList(createdImages.get()), HttpStatus.CREATED);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<PropertyImageDTO> updateImage(
             @PathVariable Long id,
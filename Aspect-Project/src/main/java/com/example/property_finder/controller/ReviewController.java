@@ -1,6 +1,7 @@
 package com.example.property_finder.controller;
 
 import com.example.property_finder.dto.ReviewDTO;
+import com.example.property_finder.dto.ReviewStatsDTO;
 import com.example.property_finder.model.Review;
 import com.example.property_finder.service.ReviewService;
 import org.springframework.http.HttpStatus;
@@ -58,16 +59,24 @@ public class ReviewController {
 
     @GetMapping("/property/{propertyId}/stats")
     public ResponseEntity<Map<String, Object>> getPropertyReviewStats(@PathVariable Long propertyId) {
-        Double averageRating = reviewService.getAverageRating(propertyId);
-        Long reviewCount = reviewService.getReviewCount(propertyId);
+        Optional<ReviewStatsDTO> reviewStats = reviewService.getReviewStats(propertyId);
 
         Map<String, Object> stats = new HashMap<>();
-        stats.put("averageRating", averageRating != null ? averageRating : 0.0);
-        stats.put("reviewCount", reviewCount);
+        stats.put("averageRating", reviewStats.map(ReviewStatsDTO::getAverageRating).orElse(0.0));
+        stats.put("reviewCount", reviewStats.map(ReviewStatsDTO::getReviewCount).orElse(0L));
 
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Ratings of several properties at once, for listing pages:
+     * {@code /api/reviews/stats?propertyIds=1,2,3}.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<ReviewStatsDTO>> getReviewStats(@RequestParam List<Long> propertyIds) {
+        return ResponseEntity.ok(reviewService.getReviewStatsByPropertyIds(propertyIds));
+    }
+
     @GetMapping("/recent")
     public ResponseEntity<List<ReviewDTO>> getRecentReviews(@RequestParam(defaultValue = "10") int limit) {
         List<Review> reviews = reviewService.getRecentReviews(limit);
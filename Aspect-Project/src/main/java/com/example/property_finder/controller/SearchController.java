@@ -1,47 +1,130 @@
 package com.example.property_finder.controller;
 
+import com.example.property_finder.dto.CursorPageDTO;
 import com.example.property_finder.dto.PropertyDTO;
 import com.example.property_finder.dto.PropertySearchDTO;
 import com.example.property_finder.model.Property;
 import com.example.property_finder.model.User;
+import com.example.property_finder.service.FeaturedPropertiesCache;
 import com.example.property_finder.service.SearchService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/search")
 public class SearchController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+
     private final SearchService searchService;
+    private final FeaturedPropertiesCache featuredPropertiesCache;
+    private final ObjectMapper objectMapper;
 
-    public SearchController(SearchService searchService) {
+    public SearchController(SearchService searchService, FeaturedPropertiesCache featuredPropertiesCache,
+                            ObjectMapper objectMapper) {
         this.searchService = searchService;
+        this.featuredPropertiesCache = featuredPropertiesCache;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
     public ResponseEntity<List<PropertyDTO>> searchProperties(@RequestBody PropertySearchDTO searchDTO) {
-        List<Property> properties = searchService.searchProperties(searchDTO);
-        List<PropertyDTO> propertyDTOs = convertToDTOList(properties);
+        List<PropertyDTO> propertyDTOs = searchService.searchPropertyDTOs(searchDTO);
         return ResponseEntity.ok(propertyDTOs);
     }
 
-    @GetMapping("/featured")
-    public ResponseEntity<List<PropertyDTO>> getFeaturedProperties() {
-        List<Property> properties = searchService.findFeaturedProperties();
-        List<PropertyDTO> propertyDTOs = convertToDTOList(properties);
-        return ResponseEntity.ok(propertyDTOs);
+    @PostMapping("/page")
+    public ResponseEntity<CursorPageDTO<PropertyDTO>> searchPropertiesPage(@RequestBody PropertySearchDTO searchDTO) {
+        CursorPageDTO<Property> page = searchService.searchPropertiesPage(searchDTO);
+        return ResponseEntity.ok(page.map(this::convertToDTO));
+    }
+
+    @PostMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportProperties(@RequestBody PropertySearchDTO searchDTO) {
+        StreamingResponseBody body = outputStream -> {
+            ObjectWriter writer = objectMapper.writerFor(PropertyDTO.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.setRootValueSeparator(null);
+            int[] written = {0};
+
+            // One JSON document per line, flushed in batches as rows come off the cursor
+            searchService.exportProperties(searchDTO, property -> {
+                try {
+                    writer.writeValue(generator, convertToDTO(property));
+                    generator.writeRaw('\n');
+                    if (++written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            generator.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    /**
+     * Writes the pre-serialized featured list as is, already gzipped for clients that accept
+     * it, so the response is never rebuilt or recompressed between listing changes.
+     */
+    @GetMapping(value = "/featured", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getFeaturedProperties(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        FeaturedPropertiesCache.Snapshot featured = featuredPropertiesCache.get();
+        if (request.checkNotModified(featured.getETag())) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(featured.getGzip());
+        }
+        return response.body(featured.getJson());
     }
 
     @GetMapping("/similar/{propertyId}")
-    public ResponseEntity<List<PropertyDTO>> getSimilarProperties(@PathVariable Long propertyId) {
-        List<Property> properties = searchService.findSimilarProperties(propertyId);
-        List<PropertyDTO> propertyDTOs = convertToDTOList(properties);
+    public ResponseEntity<List<PropertyDTO>> getSimilarProperties(@PathVariable Long propertyId,
+                                                                  @RequestParam(required = false) Integer limit) {
+        List<PropertyDTO> propertyDTOs = searchService.findSimilarProperties(propertyId, limit);
         return ResponseEntity.ok(propertyDTOs);
     }
 
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // Only an explicit q=0 refuses the coding
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
     // Helper methods for DTO conversion
     private PropertyDTO convertToDTO(Property property) {
         PropertyDTO dto = new PropertyDTO();
@@ -55,6 +138,8 @@ public class SearchController {
         dto.setArea(property.getArea());
         dto.setPropertyType(property.getPropertyType());
         dto.setListingType(property.getListingType());
+        dto.setAverageRating(property.getAverageRating());
+        dto.setReviewCount(property.getReviewCount());
 
         // Set owner information if available
         User owner = property.getOwner();
@@ -66,14 +151,4 @@ public class SearchController {
 
         return dto;
     }
-
-    private List<PropertyDTO> convertToDTOList(List<Property> properties) {
-        List<PropertyDTO> dtos = new ArrayList<>();
-
-        for (Property property : properties) {
-            dtos.add(convertToDTO(property));
-        }
-
-        return dtos;
-    }
 }
\ No newline at end of file
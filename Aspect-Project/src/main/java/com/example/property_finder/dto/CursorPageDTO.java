@@ -0,0 +1,56 @@
+package com.example.property_finder.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private String nextCursor; // Null on the last page
+    private boolean hasMore;
+
+    // Default constructor
+    public CursorPageDTO() {
+        this.items = new ArrayList<>();
+    }
+
+    // Constructor with fields
+    public CursorPageDTO(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public <R> CursorPageDTO<R> map(Function<T, R> mapper) {
+        List<R> mapped = new ArrayList<>(items.size());
+        for (T item : items) {
+            mapped.add(mapper.apply(item));
+        }
+        return new CursorPageDTO<>(mapped, nextCursor, hasMore);
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -15,6 +15,8 @@ public class PropertyDTO {
     private String listingType;
     private Long ownerId;
     private String ownerName; // For display purposes
+    private Double averageRating; // Null when there are no reviews
+    private long reviewCount;
 
     // Default constructor
     public PropertyDTO() {
@@ -38,6 +40,20 @@ public class PropertyDTO {
         this.ownerName = ownerName;
     }
 
+    // Constructor used by JPQL projections that join the owner
+    public PropertyDTO(Long id, String title, String description, BigDecimal price, String location,
+                       Integer bedrooms, Integer bathrooms, Double area, String propertyType,
+                       String listingType, Long ownerId, String ownerFirstName, String ownerLastName,
+                       long ratingSum, long reviewCount) {
+        this(id, title, description, price, location, bedrooms, bathrooms, area, propertyType,
+                listingType, ownerId, null);
+        if (ownerId != null) {
+            this.ownerName = (ownerFirstName + " " + ownerLastName).trim();
+        }
+        this.averageRating = reviewCount == 0 ? null : (double) ratingSum / reviewCount;
+        this.reviewCount = reviewCount;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -134,4 +150,20 @@ public class PropertyDTO {
     public void setOwnerName(String ownerName) {
         this.ownerName = ownerName;
     }
-}
\ No newline at end of file
+
+    public Double getAverageRating() {
+        return averageRating;
+    }
+
+    public void setAverageRating(Double averageRating) {
+        this.averageRating = averageRating;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(long reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+}
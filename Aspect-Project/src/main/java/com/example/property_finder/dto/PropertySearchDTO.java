@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 
 public class PropertySearchDTO {
     private String location;
+    private String keyword; // Matched case-insensitively against the title
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
     private Integer minBedrooms;
@@ -13,6 +14,12 @@ public class PropertySearchDTO {
     private String propertyType;
     private String listingType;
 
+    // Paginated mode only
+    private String sortBy; // id, price, area or createdAt
+    private String sortDirection; // asc or desc
+    private String cursor;
+    private Integer limit;
+
     // Default constructor
     public PropertySearchDTO() {
     }
@@ -26,6 +33,14 @@ public class PropertySearchDTO {
         this.location = location;
     }
 
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
     public BigDecimal getMinPrice() {
         return minPrice;
     }
@@ -89,4 +104,36 @@ public class PropertySearchDTO {
     public void setListingType(String listingType) {
         this.listingType = listingType;
     }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public void setSortBy(String sortBy) {
+        this.sortBy = sortBy;
+    }
+
+    public String getSortDirection() {
+        return sortDirection;
+    }
+
+    public void setSortDirection(String sortDirection) {
+        this.sortDirection = sortDirection;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.example.property_finder.dto;
+
+import com.example.property_finder.exception.ValidationException;
+import com.example.property_finder.model.Property;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Sort keys supported by paginated property searches. Every sort is made unique
+ * by using the property id as a tie-breaker, which is what keyset cursors rely on.
+ */
+public enum PropertySortField {
+    ID("id", "p.id"),
+    PRICE("price", "p.price"),
+    AREA("area", "COALESCE(p.area, 0.0)"), // Listings without an area sort as 0
+    // Listings without a creation time sort as the epoch, first ascending, on every database
+    CREATED_AT("createdAt", "COALESCE(p.createdAt, {ts '1970-01-01 00:00:00'})");
+
+    private static final LocalDateTime MISSING_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final String name;
+    private final String jpqlExpression;
+
+    PropertySortField(String name, String jpqlExpression) {
+        this.name = name;
+        this.jpqlExpression = jpqlExpression;
+    }
+
+    public static PropertySortField fromName(String name) {
+        if (name == null || name.isEmpty()) {
+            return ID;
+        }
+        for (PropertySortField field : values()) {
+            if (field.name.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new ValidationException("Unsupported sort field: " + name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getJpqlExpression() {
+        return jpqlExpression;
+    }
+
+    /**
+     * Returns the sort value of a property, matching the JPQL expression.
+     */
+    public Comparable<?> valueOf(Property property) {
+        return valueOf(property.getId(), property.getPrice(), property.getArea(), property.getCreatedAt());
+    }
+
+    public Comparable<?> valueOf(Long id, BigDecimal price, Double area, LocalDateTime createdAt) {
+        switch (this) {
+            case PRICE:
+                return price;
+            case AREA:
+                return area != null ? area : 0.0;
+            case CREATED_AT:
+                return createdAt != null ? createdAt : MISSING_CREATED_AT;
+            default:
+                return id;
+        }
+    }
+
+    public String format(Object value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        return String.valueOf(value);
+    }
+
+    public Comparable<?> parse(String value) {
+        switch (this) {
+            case PRICE:
+                return new BigDecimal(value);
+            case AREA:
+                return Double.valueOf(value);
+            case CREATED_AT:
+                return LocalDateTime.parse(value);
+            default:
+                return Long.valueOf(value);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.property_finder.dto;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Fingerprint of a listing or a list of listings, read with aggregate queries instead of
+ * loading the rows, from which the ETag header is derived.
+ * <p>
+ * Besides the listings' own update times it covers what else the listing DTOs show: owner
+ * names, through the owners' update times, and ratings, through the latest review time and
+ * the review aggregates. The listing count catches deletions, which leave no timestamp.
+ */
+public class PropertyVersionDTO {
+    private final LocalDateTime propertyUpdatedAt;
+    private final LocalDateTime ownerUpdatedAt;
+    private final LocalDateTime reviewUpdatedAt;
+    private final long count;
+    private final long reviewCount;
+    private final long ratingSum;
+
+    // Constructor used by JPQL projections of a single listing
+    public PropertyVersionDTO(LocalDateTime propertyUpdatedAt, LocalDateTime ownerUpdatedAt,
+                              LocalDateTime reviewUpdatedAt, long reviewCount, long ratingSum) {
+        this(propertyUpdatedAt, ownerUpdatedAt, reviewUpdatedAt, 1L, reviewCount, ratingSum);
+    }
+
+    // Constructor used by JPQL aggregates over a list; SUM over no rows is null
+    public PropertyVersionDTO(LocalDateTime propertyUpdatedAt, LocalDateTime ownerUpdatedAt,
+                              LocalDateTime reviewUpdatedAt, Long count, Long reviewCount, Long ratingSum) {
+        this.propertyUpdatedAt = propertyUpdatedAt;
+        this.ownerUpdatedAt = ownerUpdatedAt;
+        this.reviewUpdatedAt = reviewUpdatedAt;
+        this.count = count == null ? 0 : count;
+        this.reviewCount = reviewCount == null ? 0 : reviewCount;
+        this.ratingSum = ratingSum == null ? 0 : ratingSum;
+    }
+
+    /**
+     * Weak ETag of the representation; weak because compression may change the bytes.
+     */
+    public String getETag() {
+        String fingerprint = propertyUpdatedAt + "|" + ownerUpdatedAt + "|" + reviewUpdatedAt + "|"
+                + count + "|" + reviewCount + "|" + ratingSum;
+        return "W/\"" + DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.property_finder.dto;
+
+/**
+ * The ids needed to authorize changes to a review: its author and the owner of the
+ * reviewed property. Either may be null.
+ */
+public class ReviewOwnershipDTO {
+    private final Long reviewId;
+    private final Long authorId;
+    private final Long propertyOwnerId;
+
+    public ReviewOwnershipDTO(Long reviewId, Long authorId, Long propertyOwnerId) {
+        this.reviewId = reviewId;
+        this.authorId = authorId;
+        this.propertyOwnerId = propertyOwnerId;
+    }
+
+    public Long getReviewId() {
+        return reviewId;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public Long getPropertyOwnerId() {
+        return propertyOwnerId;
+    }
+}
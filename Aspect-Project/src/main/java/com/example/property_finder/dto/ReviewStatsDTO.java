@@ -0,0 +1,36 @@
+package com.example.property_finder.dto;
+
+/**
+ * The running review aggregates of a property, read from the property row rather than
+ * computed over its reviews.
+ */
+public class ReviewStatsDTO {
+    private final Long propertyId;
+    private final long ratingSum;
+    private final long reviewCount;
+
+    public ReviewStatsDTO(Long propertyId, long ratingSum, long reviewCount) {
+        this.propertyId = propertyId;
+        this.ratingSum = ratingSum;
+        this.reviewCount = reviewCount;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    /**
+     * Mean rating, or 0.0 if there are no reviews.
+     */
+    public double getAverageRating() {
+        return reviewCount == 0 ? 0.0 : (double) ratingSum / reviewCount;
+    }
+}
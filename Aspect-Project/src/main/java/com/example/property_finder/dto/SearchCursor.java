@@ -0,0 +1,50 @@
+package com.example.property_finder.dto;
+
+import com.example.property_finder.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the sort key and id of the last row of the previous page.
+ */
+public class SearchCursor {
+
+    private final Comparable<?> sortValue;
+    private final Long id;
+
+    public SearchCursor(Comparable<?> sortValue, Long id) {
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    public static SearchCursor decode(String token, PropertySortField sortField, boolean descending) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 3);
+            if (parts.length != 3 || !parts[0].equals(sortKey(sortField, descending))) {
+                throw new ValidationException("Cursor does not match the requested sort");
+            }
+            return new SearchCursor(sortField.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor", e);
+        }
+    }
+
+    public String encode(PropertySortField sortField, boolean descending) {
+        String raw = sortKey(sortField, descending) + "|" + sortField.format(sortValue) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Comparable<?> getSortValue() {
+        return sortValue;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    private static String sortKey(PropertySortField sortField, boolean descending) {
+        return sortField.getName() + (descending ? ":desc" : ":asc");
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.property_finder.event;
+
+import java.util.List;
+
+/**
+ * Published by FeaturedRanking when a refresh changes the featured listings or their
+ * order, so that copies of the featured list can be rebuilt.
+ */
+public class FeaturedListingsChangedEvent {
+
+    private final List<Long> propertyIds;
+
+    public FeaturedListingsChangedEvent(List<Long> propertyIds) {
+        this.propertyIds = propertyIds;
+    }
+
+    public List<Long> getPropertyIds() {
+        return propertyIds;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.property_finder.event;
+
+import com.example.property_finder.model.Location;
+
+/**
+ * Published by LocationService whenever a location is created, updated, moved or deleted.
+ * Deleting a location cascades to its sub-locations, so one event is published per removed id.
+ */
+public class LocationChangedEvent {
+
+    public enum ChangeType {
+        SAVED, DELETED
+    }
+
+    private final Long locationId;
+    private final ChangeType changeType;
+    private final Double latitude;
+    private final Double longitude;
+
+    private LocationChangedEvent(Long locationId, ChangeType changeType, Double latitude, Double longitude) {
+        this.locationId = locationId;
+        this.changeType = changeType;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public static LocationChangedEvent saved(Location location) {
+        return new LocationChangedEvent(location.getId(), ChangeType.SAVED,
+                location.getLatitude(), location.getLongitude());
+    }
+
+    public static LocationChangedEvent deleted(Long locationId) {
+        return new LocationChangedEvent(locationId, ChangeType.DELETED, null, null);
+    }
+
+    public Long getLocationId() {
+        return locationId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+}
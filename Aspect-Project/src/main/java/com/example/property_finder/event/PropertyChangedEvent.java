@@ -0,0 +1,47 @@
+package com.example.property_finder.event;
+
+import com.example.property_finder.model.Property;
+
+/**
+ * Published by PropertyService whenever a listing is created, updated or deleted.
+ * In-memory read models listen for it after the surrounding transaction commits.
+ */
+public class PropertyChangedEvent {
+
+    public enum ChangeType {
+        SAVED, DELETED
+    }
+
+    private final Long propertyId;
+    private final ChangeType changeType;
+    private final Property property;
+
+    private PropertyChangedEvent(Long propertyId, ChangeType changeType, Property property) {
+        this.propertyId = propertyId;
+        this.changeType = changeType;
+        this.property = property;
+    }
+
+    public static PropertyChangedEvent saved(Property property) {
+        return new PropertyChangedEvent(property.getId(), ChangeType.SAVED, property);
+    }
+
+    public static PropertyChangedEvent deleted(Long propertyId) {
+        return new PropertyChangedEvent(propertyId, ChangeType.DELETED, null);
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    /**
+     * The saved entity, or null for deletions. Only its basic columns should be read.
+     */
+    public Property getProperty() {
+        return property;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.property_finder.event;
+
+/**
+ * Published by ReviewService whenever a review is added, updated or deleted, so that
+ * caches of the reviewed property's rating can drop their entry once the change has
+ * committed. A null property id means the ratings of every property may have changed.
+ */
+public class ReviewChangedEvent {
+
+    private final Long reviewId;
+    private final Long propertyId;
+
+    public ReviewChangedEvent(Long reviewId, Long propertyId) {
+        this.reviewId = reviewId;
+        this.propertyId = propertyId;
+    }
+
+    public Long getReviewId() {
+        return reviewId;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+}
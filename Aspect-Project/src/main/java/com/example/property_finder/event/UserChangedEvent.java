@@ -0,0 +1,27 @@
+package com.example.property_finder.event;
+
+/**
+ * Published by UserService whenever a user is saved or deleted, so that caches keyed by
+ * the user's email or id can drop their entry once the change has committed.
+ */
+public class UserChangedEvent {
+
+    private final Long userId;
+    private final String email;
+
+    public UserChangedEvent(Long userId, String email) {
+        this.userId = userId;
+        this.email = email;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * The user's current email, or null when it is not known (for example on deletion).
+     */
+    public String getEmail() {
+        return email;
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.property_finder.exception;
 
+import com.example.property_finder.metrics.DatabaseSaturatedResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
+import java.sql.SQLTransientConnectionException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -13,6 +15,12 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final DatabaseSaturatedResponse saturatedResponse;
+
+    public GlobalExceptionHandler(DatabaseSaturatedResponse saturatedResponse) {
+        this.saturatedResponse = saturatedResponse;
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Object> handleResourceNotFoundException(
             ResourceNotFoundException ex, WebRequest request) {
@@ -59,6 +67,10 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Object> handleGlobalException(
             Exception ex, WebRequest request) {
 
+        if (isConnectionTimeout(ex)) {
+            return saturatedResponse.build(request.getDescription(false));
+        }
+
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now());
         body.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
@@ -68,4 +80,14 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
     }
-}
\ No newline at end of file
+
+    // The pool timed out handing out a connection, wrapped by whichever layer asked for it
+    private static boolean isConnectionTimeout(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
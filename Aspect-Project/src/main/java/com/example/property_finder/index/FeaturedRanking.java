@@ -0,0 +1,220 @@
+package com.example.property_finder.index;
+
+import com.example.property_finder.event.FeaturedListingsChangedEvent;
+import com.example.property_finder.repository.PropertyRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ranks listings for the landing page and keeps the ids of the best K in memory.
+ * <p>
+ * A listing's score is a weighted sum of three signals, each between 0 and 1: recency,
+ * halving every {@code half-life-days} since creation; its rating, as a Bayesian average
+ * pulled towards {@value #RATING_PRIOR} stars by {@value #RATING_PRIOR_WEIGHT} virtual
+ * reviews so that one five-star review does not outrank fifty good ones; and bookmarks,
+ * saturating as {@code n / (n + }{@value #BOOKMARK_SCALE}{@code )}.
+ * <p>
+ * A refresh streams the inputs of every listing through a min-heap bounded at K, so memory
+ * does not grow with the table, and runs on a fixed delay rather than on every write: the
+ * ranking tolerates minutes of staleness, and listings deleted in between are dropped when
+ * the ids are resolved. The first refresh runs in the background once the application is
+ * ready, so neither startup nor a request waits for the scan; until it completes callers
+ * fall back to the newest listings.
+ */
+@Component
+public class FeaturedRanking {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeaturedRanking.class);
+
+    private static final double RATING_PRIOR = 3.0;
+    private static final int RATING_PRIOR_WEIGHT = 5;
+    private static final double MAX_RATING = 5.0;
+    private static final double BOOKMARK_SCALE = 10.0;
+    private static final int FETCH_SIZE = 1000;
+
+    private final PropertyRepository propertyRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService refreshExecutor;
+    private final int topK;
+    private final double halfLifeHours;
+    private final double recencyWeight;
+    private final double ratingWeight;
+    private final double bookmarkWeight;
+
+    // Not synchronized: refreshes query the database and must not pin a virtual thread
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile List<Long> topIds = List.of();
+    private volatile boolean ready;
+    private volatile LocalDateTime refreshedAt;
+    private volatile long candidates;
+    private volatile long refreshMillis;
+
+    public FeaturedRanking(PropertyRepository propertyRepository, ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.featured.top-k:20}") int topK,
+                           @Value("${app.featured.recency-half-life-days:30}") double halfLifeDays,
+                           @Value("${app.featured.weight.recency:0.4}") double recencyWeight,
+                           @Value("${app.featured.weight.rating:0.4}") double ratingWeight,
+                           @Value("${app.featured.weight.bookmarks:0.2}") double bookmarkWeight) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("Featured top-k must be positive");
+        }
+        this.propertyRepository = propertyRepository;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "featured-ranking");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.topK = topK;
+        this.halfLifeHours = halfLifeDays * 24;
+        this.recencyWeight = recencyWeight;
+        this.ratingWeight = ratingWeight;
+        this.bookmarkWeight = bookmarkWeight;
+    }
+
+    /**
+     * True once the first refresh has completed.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    /**
+     * Returns the ids of the featured listings, best first.
+     */
+    public List<Long> getTopIds() {
+        return topIds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        refreshExecutor.execute(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                logger.error("Failed to rank featured listings, retrying on the next scheduled refresh", e);
+            }
+        });
+    }
+
+    /**
+     * Re-scores every listing and publishes the new top K, announcing it if it changed.
+     */
+    @Scheduled(initialDelayString = "${app.featured.refresh-interval-ms:300000}",
+            fixedDelayString = "${app.featured.refresh-interval-ms:300000}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            long start = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+
+            // Min-heap: the weakest of the best K seen so far is at the head; newer ids win ties
+            Comparator<Candidate> order = Comparator.comparingDouble((Candidate c) -> c.score)
+                    .thenComparingLong(c -> c.id);
+            PriorityQueue<Candidate> best = new PriorityQueue<>(topK + 1, order);
+            long[] scanned = {0};
+
+            // Also called directly on the refresh thread, where @Transactional would not apply
+            readOnlyTransaction.executeWithoutResult(status ->
+                    propertyRepository.streamFeaturedRankingRows(FETCH_SIZE, row -> {
+                        scanned[0]++;
+                        Candidate candidate = new Candidate((Long) row[0], score(now, (LocalDateTime) row[1],
+                                ((Number) row[2]).longValue(), ((Number) row[3]).longValue(),
+                                ((Number) row[4]).longValue()));
+                        if (best.size() < topK) {
+                            best.offer(candidate);
+                        } else if (order.compare(candidate, best.peek()) > 0) {
+                            best.poll();
+                            best.offer(candidate);
+                        }
+                    }));
+
+            List<Candidate> ranked = new ArrayList<>(best);
+            ranked.sort(order.reversed());
+            List<Long> ids = ranked.stream().map(candidate -> candidate.id).toList();
+
+            // The first ranking replaces the newest-listings fallback even if the ids match
+            boolean changed = !ready || !ids.equals(topIds);
+            topIds = ids;
+            ready = true;
+            refreshedAt = now;
+            candidates = scanned[0];
+            refreshMillis = (System.nanoTime() - start) / 1_000_000;
+            logger.debug("Featured ranking scored {} listings in {} ms", candidates, refreshMillis);
+
+            if (changed) {
+                eventPublisher.publishEvent(new FeaturedListingsChangedEvent(ids));
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("topK", topK);
+        stats.put("featured", topIds.size());
+        stats.put("candidates", candidates);
+        stats.put("refreshedAt", refreshedAt);
+        stats.put("refreshMillis", refreshMillis);
+        return stats;
+    }
+
+    private double score(LocalDateTime now, LocalDateTime createdAt, long ratingSum, long reviewCount, long bookmarks) {
+        double recency = 0;
+        if (createdAt != null) {
+            double ageHours = Math.max(0, Duration.between(createdAt, now).toMinutes() / 60.0);
+            recency = Math.pow(0.5, ageHours / halfLifeHours);
+        }
+        double rating = (ratingSum + RATING_PRIOR * RATING_PRIOR_WEIGHT)
+                / (reviewCount + RATING_PRIOR_WEIGHT) / MAX_RATING;
+        double popularity = bookmarks / (bookmarks + BOOKMARK_SCALE);
+
+        return recencyWeight * recency + ratingWeight * rating + bookmarkWeight * popularity;
+    }
+
+    private static final class Candidate {
+        final long id;
+        final double score;
+
+        Candidate(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
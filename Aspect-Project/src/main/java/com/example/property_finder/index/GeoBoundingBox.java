@@ -0,0 +1,90 @@
+package com.example.property_finder.index;
+
+/**
+ * Latitude/longitude box enclosing a great-circle search radius, used to prune candidates
+ * before computing exact distances.
+ * <p>
+ * Longitudes are normalized to [-180, 180). When the circle crosses the antimeridian
+ * minLongitude is greater than maxLongitude, and when it contains a pole every
+ * longitude is covered.
+ */
+public final class GeoBoundingBox {
+
+    public static final double EARTH_RADIUS_KM = 6371;
+
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+    private final boolean allLongitudes;
+
+    private GeoBoundingBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude,
+                           boolean allLongitudes) {
+        this.minLatitude = minLatitude;
+        this.maxLatitude = maxLatitude;
+        this.minLongitude = minLongitude;
+        this.maxLongitude = maxLongitude;
+        this.allLongitudes = allLongitudes;
+    }
+
+    public static GeoBoundingBox around(double latitude, double longitude, double radiusInKm) {
+        double angularRadius = radiusInKm / EARTH_RADIUS_KM;
+        double latDelta = Math.toDegrees(angularRadius);
+        double minLat = latitude - latDelta;
+        double maxLat = latitude + latDelta;
+
+        if (minLat <= -90 || maxLat >= 90) {
+            return new GeoBoundingBox(Math.max(minLat, -90), Math.min(maxLat, 90), -180, 180, true);
+        }
+
+        // Widest longitude span of the circle, reached north or south of its centre
+        double lonDelta = Math.toDegrees(Math.asin(Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude))));
+        if (lonDelta >= 180) {
+            return new GeoBoundingBox(minLat, maxLat, -180, 180, true);
+        }
+
+        double lon = normalizeLongitude(longitude);
+        return new GeoBoundingBox(minLat, maxLat, normalizeLongitude(lon - lonDelta),
+                normalizeLongitude(lon + lonDelta), false);
+    }
+
+    public static double normalizeLongitude(double longitude) {
+        double normalized = (longitude + 180) % 360;
+        return (normalized < 0 ? normalized + 360 : normalized) - 180;
+    }
+
+    /**
+     * Great-circle distance using the spherical law of cosines, matching the JPQL query.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double lat1 = Math.toRadians(latitude1);
+        double lat2 = Math.toRadians(latitude2);
+        double cosine = Math.cos(lat1) * Math.cos(lat2) * Math.cos(Math.toRadians(longitude2 - longitude1))
+                + Math.sin(lat1) * Math.sin(lat2);
+        return EARTH_RADIUS_KM * Math.acos(Math.max(-1, Math.min(1, cosine)));
+    }
+
+    public double getMinLatitude() {
+        return minLatitude;
+    }
+
+    public double getMaxLatitude() {
+        return maxLatitude;
+    }
+
+    public double getMinLongitude() {
+        return minLongitude;
+    }
+
+    public double getMaxLongitude() {
+        return maxLongitude;
+    }
+
+    public boolean isAllLongitudes() {
+        return allLongitudes;
+    }
+
+    public boolean crossesAntimeridian() {
+        return !allLongitudes && minLongitude > maxLongitude;
+    }
+}
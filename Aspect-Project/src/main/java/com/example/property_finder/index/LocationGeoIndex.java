@@ -0,0 +1,323 @@
+package com.example.property_finder.index;
+
+import com.example.property_finder.event.LocationChangedEvent;
+import com.example.property_finder.repository.LocationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory grid index over location coordinates for radius searches.
+ * <p>
+ * The globe is split into fixed latitude/longitude cells. A query only visits the cells
+ * overlapping the bounding box of the search circle (wrapping across the antimeridian
+ * and widening to every longitude near the poles), computes the exact great-circle
+ * distance for the locations in them, and keeps the closest ones in a bounded heap.
+ * <p>
+ * Changes are applied in place after commit; readers never lock, skip entries whose cell
+ * no longer matches and drop repeats of an id, so a location that moves while a query
+ * walks the cells is returned at most once. Only writes made through this instance are
+ * seen, so the index is rebuilt on every startup.
+ */
+@Component
+public class LocationGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationGeoIndex.class);
+
+    private static final Comparator<Hit> BY_DISTANCE =
+            Comparator.comparingDouble((Hit hit) -> hit.distanceKm).thenComparingLong(hit -> hit.id);
+
+    private final LocationRepository locationRepository;
+    private final boolean enabled;
+    private final int latCells;
+    private final int lonCells;
+    private final double cellHeight;
+    private final double cellWidth;
+    private final ExecutorService indexExecutor;
+
+    private volatile Grid grid = new Grid();
+    private volatile boolean ready;
+
+    // Changes applied while a reload is reading the database, replayed onto the new grid
+    private List<Point> pendingChanges;
+
+    public LocationGeoIndex(LocationRepository locationRepository,
+                            @Value("${app.geo.index.enabled:true}") boolean enabled,
+                            @Value("${app.geo.index.cell-size-degrees:0.05}") double cellSizeDegrees) {
+        if (!(cellSizeDegrees > 0 && cellSizeDegrees <= 90)) {
+            throw new IllegalArgumentException("app.geo.index.cell-size-degrees must be in (0, 90]");
+        }
+        this.locationRepository = locationRepository;
+        this.enabled = enabled;
+        this.latCells = (int) Math.ceil(180 / cellSizeDegrees);
+        this.lonCells = (int) Math.ceil(360 / cellSizeDegrees);
+        // Round the cell size so that whole cells tile the globe exactly
+        this.cellHeight = 180.0 / latCells;
+        this.cellWidth = 360.0 / lonCells;
+        this.indexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "location-geo-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * True once the initial load has completed; until then callers should fall back to the database.
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public int size() {
+        return grid.points.size();
+    }
+
+    /**
+     * Returns the IDs of up to maxResults locations within radiusInKm of the given point,
+     * closest first. Locations without coordinates are never returned.
+     */
+    public List<Long> findNearby(double latitude, double longitude, double radiusInKm, int maxResults) {
+        if (!(radiusInKm >= 0) || maxResults <= 0) {
+            return List.of();
+        }
+
+        Grid current = grid;
+        PriorityQueue<Hit> best = new PriorityQueue<>(maxResults + 1, BY_DISTANCE.reversed());
+
+        GeoBoundingBox box = GeoBoundingBox.around(latitude, longitude, radiusInKm);
+        int firstLatCell = latCell(box.getMinLatitude());
+        int lastLatCell = latCell(box.getMaxLatitude());
+
+        double lonSpan = box.getMaxLongitude() - box.getMinLongitude();
+        if (lonSpan < 0) {
+            lonSpan += 360;
+        }
+        int firstLonCell;
+        int lonCellCount;
+        if (box.isAllLongitudes() || lonSpan + cellWidth >= 360) {
+            firstLonCell = 0;
+            lonCellCount = lonCells;
+        } else {
+            // Walks eastwards from the first cell, wrapping across the antimeridian
+            firstLonCell = lonCell(box.getMinLongitude());
+            lonCellCount = Math.floorMod(lonCell(box.getMaxLongitude()) - firstLonCell, lonCells) + 1;
+        }
+
+        long cellCount = (long) (lastLatCell - firstLatCell + 1) * lonCellCount;
+        if (cellCount > current.points.size()) {
+            // Huge radius: visiting every stored point beats probing mostly empty cells
+            for (Point point : current.points.values()) {
+                offer(best, null, point, latitude, longitude, radiusInKm, maxResults);
+            }
+        } else {
+            // A location can move into a cell that has not been visited yet after being offered
+            Set<Long> offered = new HashSet<>();
+            for (int latCell = firstLatCell; latCell <= lastLatCell; latCell++) {
+                for (int i = 0; i < lonCellCount; i++) {
+                    long cell = cellKey(latCell, (firstLonCell + i) % lonCells);
+                    Set<Long> ids = current.cells.get(cell);
+                    if (ids == null) {
+                        continue;
+                    }
+                    for (Long id : ids) {
+                        Point point = current.points.get(id);
+                        // Skip the entry left behind in the cell a location is moving out of
+                        if (point != null && point.cell == cell) {
+                            offer(best, offered, point, latitude, longitude, radiusInKm, maxResults);
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(BY_DISTANCE);
+
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            ids.add(hit.id);
+        }
+        return ids;
+    }
+
+    private static void offer(PriorityQueue<Hit> best, Set<Long> offered, Point point, double latitude,
+                              double longitude, double radiusInKm, int maxResults) {
+        double distance = GeoBoundingBox.distanceKm(latitude, longitude, point.latitude, point.longitude);
+        if (distance <= radiusInKm && (offered == null || offered.add(point.id))) {
+            best.offer(new Hit(point.id, distance));
+            if (best.size() > maxResults) {
+                best.poll();
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            logger.info("Location geo index disabled, nearby searches will use the database");
+            return;
+        }
+        indexExecutor.execute(this::reload);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onLocationChanged(LocationChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        Point change = event.getChangeType() == LocationChangedEvent.ChangeType.DELETED
+                ? Point.removed(event.getLocationId())
+                : point(event.getLocationId(), event.getLatitude(), event.getLongitude());
+        grid.apply(change);
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    /**
+     * Rebuilds the whole index from the database.
+     */
+    public void reload() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        try {
+            Grid loaded = new Grid();
+            for (Object[] row : locationRepository.findGeoIndexRows()) {
+                loaded.apply(point((Long) row[0], (Double) row[1], (Double) row[2]));
+            }
+
+            synchronized (this) {
+                for (Point change : pendingChanges) {
+                    loaded.apply(change);
+                }
+                grid = loaded;
+                ready = true;
+            }
+
+            logger.info("Location geo index loaded {} locations in {} ms",
+                    loaded.points.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.error("Failed to load location geo index, nearby searches will use the database", e);
+        } finally {
+            synchronized (this) {
+                pendingChanges = null;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexExecutor.shutdownNow();
+    }
+
+    private Point point(Long id, Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return Point.removed(id);
+        }
+        return new Point(id, latitude, longitude,
+                cellKey(latCell(latitude), lonCell(GeoBoundingBox.normalizeLongitude(longitude))));
+    }
+
+    private int latCell(double latitude) {
+        int cell = (int) Math.floor((latitude + 90) / cellHeight);
+        return Math.max(0, Math.min(latCells - 1, cell));
+    }
+
+    private int lonCell(double normalizedLongitude) {
+        return Math.floorMod((int) Math.floor((normalizedLongitude + 180) / cellWidth), lonCells);
+    }
+
+    private long cellKey(int latCell, int lonCell) {
+        return (long) latCell * lonCells + lonCell;
+    }
+
+    /**
+     * Cell membership plus the current position of every indexed location. Only mutated
+     * while holding the index lock; reads are lock-free.
+     */
+    private static final class Grid {
+        final Map<Long, Point> points = new ConcurrentHashMap<>();
+        final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+        void apply(Point change) {
+            if (change.removed) {
+                Point previous = points.remove(change.id);
+                if (previous != null) {
+                    leave(previous);
+                }
+                return;
+            }
+
+            // Join the new cell before publishing the position so readers never miss the point
+            cells.computeIfAbsent(change.cell, cell -> ConcurrentHashMap.newKeySet()).add(change.id);
+            Point previous = points.put(change.id, change);
+            if (previous != null && previous.cell != change.cell) {
+                leave(previous);
+            }
+        }
+
+        private void leave(Point point) {
+            Set<Long> ids = cells.get(point.cell);
+            if (ids != null) {
+                ids.remove(point.id);
+                if (ids.isEmpty()) {
+                    cells.remove(point.cell);
+                }
+            }
+        }
+    }
+
+    private static final class Point {
+        final long id;
+        final boolean removed;
+        final double latitude;
+        final double longitude;
+        final long cell;
+
+        Point(long id, double latitude, double longitude, long cell) {
+            this(id, false, latitude, longitude, cell);
+        }
+
+        private Point(long id, boolean removed, double latitude, double longitude, long cell) {
+            this.id = id;
+            this.removed = removed;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cell = cell;
+        }
+
+        static Point removed(long id) {
+            return new Point(id, true, 0, 0, -1);
+        }
+    }
+
+    private static final class Hit {
+        final long id;
+        final double distanceKm;
+
+        Hit(long id, double distanceKm) {
+            this.id = id;
+            this.distanceKm = distanceKm;
+        }
+    }
+}
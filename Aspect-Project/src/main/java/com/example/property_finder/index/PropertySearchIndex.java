@@ -0,0 +1,921 @@
+package com.example.property_finder.index;
+
+import com.example.property_finder.dto.PropertySearchDTO;
+import com.example.property_finder.dto.PropertySortField;
+import com.example.property_finder.dto.SearchCursor;
+import com.example.property_finder.event.PropertyChangedEvent;
+import com.example.property_finder.model.Property;
+import com.example.property_finder.repository.PropertyRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory index answering PropertySearchDTO queries without touching the database.
+ * <p>
+ * Location and title are indexed as lower-cased trigram postings so that the
+ * substring semantics of the JPQL {@code LIKE '%x%'} search are preserved, and
+ * price, area, bedrooms and bathrooms are kept as sorted primitive columns. A query
+ * drives off the most selective posting list or range and verifies the remaining
+ * predicates per candidate.
+ * <p>
+ * The index is an immutable snapshot plus a small copy-on-write delta of changes
+ * applied after commit; once the delta grows past the rebuild threshold it is folded
+ * into a fresh snapshot on a background thread. Only writes made through this
+ * instance are seen, so the index is rebuilt from the database on every startup.
+ * <p>
+ * Each snapshot also keeps the listings' similarity features as float columns, so that
+ * nearest-neighbour queries are a scan of the source's listing type without allocation
+ * per candidate.
+ */
+@Component
+public class PropertySearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertySearchIndex.class);
+
+    private final PropertyRepository propertyRepository;
+    private final boolean enabled;
+    private final int rebuildThreshold;
+    private final ExecutorService indexExecutor;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean(false);
+
+    private volatile State state = new State(Snapshot.build(new ArrayList<>()), Map.of());
+    private volatile boolean ready;
+
+    public PropertySearchIndex(PropertyRepository propertyRepository,
+                               @Value("${app.search.index.enabled:true}") boolean enabled,
+                               @Value("${app.search.index.rebuild-threshold:1024}") int rebuildThreshold) {
+        this.propertyRepository = propertyRepository;
+        this.enabled = enabled;
+        this.rebuildThreshold = rebuildThreshold;
+        this.indexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "property-search-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * True once the initial load has completed; until then callers should fall back to the database.
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public int size() {
+        State current = state;
+        int size = current.snapshot.docs.length;
+        for (Doc doc : current.delta.values()) {
+            boolean inSnapshot = current.snapshot.contains(doc.id);
+            if (doc.deleted && inSnapshot) {
+                size--;
+            } else if (!doc.deleted && !inSnapshot) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the IDs of all properties matching the search, in ascending ID order.
+     */
+    public List<Long> search(PropertySearchDTO searchDTO) {
+        State current = state;
+        Criteria criteria = new Criteria(searchDTO);
+
+        List<Long> ids = new ArrayList<>();
+        collect(current, criteria, doc -> ids.add(doc.id));
+
+        Collections.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Returns the IDs of up to k listings most similar to the given one, nearest first and
+     * excluding the listing itself, or an empty list if it is not indexed. Only listings of
+     * the same listing type are considered, since sale and rent prices are not comparable.
+     *
+     * @see SimilarityFeatures
+     */
+    public List<Long> findSimilar(long propertyId, int k) {
+        State current = state;
+        Doc source = current.delta.containsKey(propertyId)
+                ? current.delta.get(propertyId)
+                : current.snapshot.find(propertyId);
+        if (source == null || source.deleted || k < 1) {
+            return List.of();
+        }
+
+        SimilarityFeatures features = current.snapshot.similarity;
+        SimilarityFeatures.Query query = features.query(source);
+        Comparator<Neighbour> nearestFirst = Comparator.comparingDouble((Neighbour n) -> n.distance)
+                .thenComparingLong(n -> n.id);
+        // Max-heap holding the k nearest seen so far, farthest at the head
+        PriorityQueue<Neighbour> nearest = new PriorityQueue<>(k + 1, nearestFirst.reversed());
+
+        Snapshot snapshot = current.snapshot;
+        int[] candidates = source.listingType != null
+                ? snapshot.byListingType.getOrDefault(source.listingType, Snapshot.NO_MATCHES)
+                : null;
+        int count = candidates != null ? candidates.length : snapshot.docs.length;
+        for (int i = 0; i < count; i++) {
+            int ordinal = candidates != null ? candidates[i] : i;
+            Doc doc = snapshot.docs[ordinal];
+            if (doc.id == propertyId || (!current.delta.isEmpty() && current.delta.containsKey(doc.id))) {
+                continue;
+            }
+            double bound = nearest.size() < k ? Double.POSITIVE_INFINITY : nearest.peek().distance;
+            double distance = features.distance(ordinal, doc, query, bound);
+            if (distance < bound) {
+                offer(nearest, new Neighbour(doc.id, distance), k);
+            }
+        }
+        for (Doc doc : current.delta.values()) {
+            if (doc.deleted || doc.id == propertyId || !Objects.equals(doc.listingType, source.listingType)) {
+                continue;
+            }
+            offer(nearest, new Neighbour(doc.id, features.distance(features.query(doc), query)), k);
+        }
+
+        List<Neighbour> ranked = new ArrayList<>(nearest);
+        ranked.sort(nearestFirst);
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Neighbour neighbour : ranked) {
+            ids.add(neighbour.id);
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the IDs of up to maxResults matches ordered by (sortField, id) and
+     * strictly after the cursor, using a bounded heap instead of sorting every match.
+     */
+    public List<Long> searchPage(PropertySearchDTO searchDTO, PropertySortField sortField, boolean descending,
+                                 SearchCursor after, int maxResults) {
+        State current = state;
+        Criteria criteria = new Criteria(searchDTO);
+        Comparator<Doc> order = descending
+                ? (left, right) -> compareKeys(right, sortField, sortValue(left, sortField), left.id)
+                : (left, right) -> compareKeys(left, sortField, sortValue(right, sortField), right.id);
+
+        // Max-heap on the page order holding the best maxResults candidates seen so far
+        PriorityQueue<Doc> best = new PriorityQueue<>(maxResults + 1, order.reversed());
+        collect(current, criteria, doc -> {
+            if (after != null) {
+                int relative = compareKeys(doc, sortField, after.getSortValue(), after.getId());
+                if (descending ? relative >= 0 : relative <= 0) {
+                    return;
+                }
+            }
+            best.offer(doc);
+            if (best.size() > maxResults) {
+                best.poll();
+            }
+        });
+
+        List<Doc> page = new ArrayList<>(best);
+        page.sort(order);
+
+        List<Long> ids = new ArrayList<>(page.size());
+        for (Doc doc : page) {
+            ids.add(doc.id);
+        }
+        return ids;
+    }
+
+    private static void collect(State current, Criteria criteria, Consumer<Doc> consumer) {
+        current.snapshot.collect(criteria, current.delta, consumer);
+        for (Doc doc : current.delta.values()) {
+            if (!doc.deleted && criteria.matches(doc)) {
+                consumer.accept(doc);
+            }
+        }
+    }
+
+    private static Comparable<?> sortValue(Doc doc, PropertySortField sortField) {
+        return sortField.valueOf(doc.id, doc.price, doc.area, doc.createdAt);
+    }
+
+    /**
+     * Compares the doc's (sort value, id) key with the given key; nulls sort first.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareKeys(Doc doc, PropertySortField sortField, Comparable<?> otherValue, long otherId) {
+        Comparable value = sortValue(doc, sortField);
+        int result;
+        if (value == null || otherValue == null) {
+            result = value == null ? (otherValue == null ? 0 : -1) : 1;
+        } else {
+            result = value.compareTo(otherValue);
+        }
+        return result != 0 ? result : Long.compare(doc.id, otherId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            logger.info("Property search index disabled, searches will use the database");
+            return;
+        }
+        indexExecutor.execute(this::reload);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        if (event.getChangeType() == PropertyChangedEvent.ChangeType.DELETED) {
+            apply(Doc.tombstone(event.getPropertyId()));
+        } else {
+            apply(Doc.of(event.getProperty()));
+        }
+    }
+
+    /**
+     * Rebuilds the whole index from the database.
+     */
+    public void reload() {
+        long start = System.nanoTime();
+        State started = state;
+
+        try {
+            List<Doc> docs = new ArrayList<>();
+            for (Object[] row : propertyRepository.findSearchIndexRows()) {
+                docs.add(Doc.fromRow(row));
+            }
+
+            publish(Snapshot.build(docs), started.delta);
+            ready = true;
+
+            logger.info("Property search index loaded {} listings in {} ms",
+                    docs.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.error("Failed to load property search index, searches will use the database", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexExecutor.shutdownNow();
+    }
+
+    private synchronized void apply(Doc doc) {
+        Map<Long, Doc> delta = new HashMap<>(state.delta);
+        delta.put(doc.id, doc);
+        state = new State(state.snapshot, Collections.unmodifiableMap(delta));
+
+        if (delta.size() >= rebuildThreshold && rebuildScheduled.compareAndSet(false, true)) {
+            indexExecutor.execute(() -> {
+                try {
+                    State started = state;
+                    publish(started.snapshot.merge(started.delta), started.delta);
+                } finally {
+                    rebuildScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Installs a new snapshot, keeping only the delta entries that were not folded into it.
+     */
+    private synchronized void publish(Snapshot snapshot, Map<Long, Doc> applied) {
+        Map<Long, Doc> remaining = new HashMap<>();
+        for (Map.Entry<Long, Doc> entry : state.delta.entrySet()) {
+            if (applied.get(entry.getKey()) != entry.getValue()) {
+                remaining.put(entry.getKey(), entry.getValue());
+            }
+        }
+        state = new State(snapshot, Collections.unmodifiableMap(remaining));
+    }
+
+    private static void offer(PriorityQueue<Neighbour> nearest, Neighbour neighbour, int k) {
+        nearest.offer(neighbour);
+        if (nearest.size() > k) {
+            nearest.poll();
+        }
+    }
+
+    private static final class Neighbour {
+        final long id;
+        final double distance;
+
+        Neighbour(long id, double distance) {
+            this.id = id;
+            this.distance = distance;
+        }
+    }
+
+    private static final class State {
+        final Snapshot snapshot;
+        final Map<Long, Doc> delta;
+
+        State(Snapshot snapshot, Map<Long, Doc> delta) {
+            this.snapshot = snapshot;
+            this.delta = delta;
+        }
+    }
+
+    /**
+     * Indexed columns of a single listing. A tombstone marks a deletion in the delta.
+     */
+    static final class Doc {
+        final long id;
+        final boolean deleted;
+        final String location;
+        final String titleLower;
+        final BigDecimal price;
+        final Double area;
+        final Integer bedrooms;
+        final Integer bathrooms;
+        final String propertyType;
+        final String listingType;
+        final LocalDateTime createdAt;
+
+        private Doc(long id, boolean deleted, String title, String location, BigDecimal price, Double area,
+                    Integer bedrooms, Integer bathrooms, String propertyType, String listingType,
+                    LocalDateTime createdAt) {
+            this.id = id;
+            this.deleted = deleted;
+            this.location = location;
+            this.titleLower = title != null ? title.toLowerCase(Locale.ROOT) : null;
+            this.price = price;
+            this.area = area;
+            this.bedrooms = bedrooms;
+            this.bathrooms = bathrooms;
+            this.propertyType = propertyType;
+            this.listingType = listingType;
+            this.createdAt = createdAt;
+        }
+
+        static Doc of(Property property) {
+            return new Doc(property.getId(), false, property.getTitle(), property.getLocation(),
+                    property.getPrice(), property.getArea(), property.getBedrooms(), property.getBathrooms(),
+                    property.getPropertyType(), property.getListingType(), property.getCreatedAt());
+        }
+
+        /**
+         * Maps a row of {@link PropertyRepository#findSearchIndexRows()}.
+         */
+        static Doc fromRow(Object[] row) {
+            return new Doc((Long) row[0], false, (String) row[1], (String) row[2], (BigDecimal) row[3],
+                    (Double) row[4], (Integer) row[5], (Integer) row[6], (String) row[7], (String) row[8],
+                    (LocalDateTime) row[9]);
+        }
+
+        static Doc tombstone(Long id) {
+            return new Doc(id, true, null, null, null, null, null, null, null, null, null);
+        }
+    }
+
+    /**
+     * A PropertySearchDTO normalized once per query.
+     */
+    static final class Criteria {
+        final String location;
+        final String locationLower;
+        final String keyword;
+        final BigDecimal minPrice;
+        final BigDecimal maxPrice;
+        final Integer minBedrooms;
+        final Integer minBathrooms;
+        final Double minArea;
+        final Double maxArea;
+        final String propertyType;
+        final String listingType;
+
+        Criteria(PropertySearchDTO searchDTO) {
+            this.location = emptyToNull(searchDTO.getLocation());
+            this.locationLower = location != null ? location.toLowerCase(Locale.ROOT) : null;
+            String keywordValue = emptyToNull(searchDTO.getKeyword());
+            this.keyword = keywordValue != null ? keywordValue.toLowerCase(Locale.ROOT) : null;
+            this.minPrice = searchDTO.getMinPrice();
+            this.maxPrice = searchDTO.getMaxPrice();
+            this.minBedrooms = searchDTO.getMinBedrooms();
+            this.minBathrooms = searchDTO.getMinBathrooms();
+            this.minArea = searchDTO.getMinArea();
+            this.maxArea = searchDTO.getMaxArea();
+            this.propertyType = emptyToNull(searchDTO.getPropertyType());
+            this.listingType = emptyToNull(searchDTO.getListingType());
+        }
+
+        boolean matches(Doc doc) {
+            if (location != null && (doc.location == null || !doc.location.contains(location))) {
+                return false;
+            }
+            if (keyword != null && (doc.titleLower == null || !doc.titleLower.contains(keyword))) {
+                return false;
+            }
+            if (minPrice != null && (doc.price == null || doc.price.compareTo(minPrice) < 0)) {
+                return false;
+            }
+            if (maxPrice != null && (doc.price == null || doc.price.compareTo(maxPrice) > 0)) {
+                return false;
+            }
+            if (minBedrooms != null && (doc.bedrooms == null || doc.bedrooms < minBedrooms)) {
+                return false;
+            }
+            if (minBathrooms != null && (doc.bathrooms == null || doc.bathrooms < minBathrooms)) {
+                return false;
+            }
+            if (minArea != null && (doc.area == null || doc.area < minArea)) {
+                return false;
+            }
+            if (maxArea != null && (doc.area == null || doc.area > maxArea)) {
+                return false;
+            }
+            if (propertyType != null && !propertyType.equals(doc.propertyType)) {
+                return false;
+            }
+            return listingType == null || listingType.equals(doc.listingType);
+        }
+
+        private static String emptyToNull(String value) {
+            return value == null || value.isEmpty() ? null : value;
+        }
+    }
+
+    static final class Snapshot {
+        private static final int[] NO_MATCHES = new int[0];
+
+        final Doc[] docs;
+        final long[] ids;
+        final Map<Long, int[]> locationTrigrams;
+        final Map<Long, int[]> titleTrigrams;
+        final Map<String, int[]> byPropertyType;
+        final Map<String, int[]> byListingType;
+        final SortedColumn price;
+        final SortedColumn area;
+        final SortedColumn bedrooms;
+        final SortedColumn bathrooms;
+        final SimilarityFeatures similarity;
+
+        private Snapshot(Doc[] docs) {
+            this.docs = docs;
+            this.ids = new long[docs.length];
+
+            Map<Long, IntList> location = new HashMap<>();
+            Map<Long, IntList> title = new HashMap<>();
+            Map<String, IntList> propertyTypes = new HashMap<>();
+            Map<String, IntList> listingTypes = new HashMap<>();
+
+            for (int ordinal = 0; ordinal < docs.length; ordinal++) {
+                Doc doc = docs[ordinal];
+                ids[ordinal] = doc.id;
+                if (doc.location != null) {
+                    addTrigrams(location, doc.location.toLowerCase(Locale.ROOT), ordinal);
+                }
+                if (doc.titleLower != null) {
+                    addTrigrams(title, doc.titleLower, ordinal);
+                }
+                if (doc.propertyType != null) {
+                    propertyTypes.computeIfAbsent(doc.propertyType, k -> new IntList()).add(ordinal);
+                }
+                if (doc.listingType != null) {
+                    listingTypes.computeIfAbsent(doc.listingType, k -> new IntList()).add(ordinal);
+                }
+            }
+
+            this.locationTrigrams = freeze(location);
+            this.titleTrigrams = freeze(title);
+            this.byPropertyType = freeze(propertyTypes);
+            this.byListingType = freeze(listingTypes);
+            this.price = SortedColumn.build(docs, doc -> doc.price != null ? doc.price.doubleValue() : Double.NaN);
+            this.area = SortedColumn.build(docs, doc -> doc.area != null ? doc.area : Double.NaN);
+            this.bedrooms = SortedColumn.build(docs, doc -> doc.bedrooms != null ? doc.bedrooms : Double.NaN);
+            this.bathrooms = SortedColumn.build(docs, doc -> doc.bathrooms != null ? doc.bathrooms : Double.NaN);
+            this.similarity = new SimilarityFeatures(docs);
+        }
+
+        static Snapshot build(List<Doc> docs) {
+            Doc[] sorted = docs.toArray(new Doc[0]);
+            Arrays.sort(sorted, Comparator.comparingLong(doc -> doc.id));
+            return new Snapshot(sorted);
+        }
+
+        /**
+         * Builds a new snapshot with the given delta folded in.
+         */
+        Snapshot merge(Map<Long, Doc> delta) {
+            List<Doc> merged = new ArrayList<>(docs.length + delta.size());
+            for (Doc doc : docs) {
+                if (!delta.containsKey(doc.id)) {
+                    merged.add(doc);
+                }
+            }
+            for (Doc doc : delta.values()) {
+                if (!doc.deleted) {
+                    merged.add(doc);
+                }
+            }
+            return build(merged);
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, id) >= 0;
+        }
+
+        Doc find(long id) {
+            int ordinal = Arrays.binarySearch(ids, id);
+            return ordinal >= 0 ? docs[ordinal] : null;
+        }
+
+        /**
+         * Passes every matching document not shadowed by the delta to the consumer.
+         */
+        void collect(Criteria criteria, Map<Long, Doc> shadowed, Consumer<Doc> consumer) {
+            // Start with a full scan and narrow to the smallest candidate list available
+            int[] candidates = null;
+            int from = 0;
+            int to = docs.length;
+
+            int[] posting = null;
+            if (criteria.location != null) {
+                posting = smallest(posting, smallestTrigramPosting(locationTrigrams, criteria.locationLower));
+            }
+            if (criteria.keyword != null) {
+                posting = smallest(posting, smallestTrigramPosting(titleTrigrams, criteria.keyword));
+            }
+            if (criteria.propertyType != null) {
+                posting = smallest(posting, byPropertyType.getOrDefault(criteria.propertyType, NO_MATCHES));
+            }
+            if (criteria.listingType != null) {
+                posting = smallest(posting, byListingType.getOrDefault(criteria.listingType, NO_MATCHES));
+            }
+            if (posting != null && posting.length < to - from) {
+                candidates = posting;
+                to = posting.length;
+            }
+
+            SortedColumn[] columns = {price, area, bedrooms, bathrooms};
+            Double[][] bounds = {
+                    {toDouble(criteria.minPrice), toDouble(criteria.maxPrice)},
+                    {criteria.minArea, criteria.maxArea},
+                    {toDouble(criteria.minBedrooms), null},
+                    {toDouble(criteria.minBathrooms), null}
+            };
+            for (int i = 0; i < columns.length; i++) {
+                if (bounds[i][0] == null && bounds[i][1] == null) {
+                    continue;
+                }
+                int lower = columns[i].lowerBound(bounds[i][0]);
+                int upper = columns[i].upperBound(bounds[i][1]);
+                if (upper - lower < to - from) {
+                    candidates = columns[i].ordinals;
+                    from = lower;
+                    to = upper;
+                }
+            }
+
+            for (int i = from; i < to; i++) {
+                Doc doc = docs[candidates == null ? i : candidates[i]];
+                if (!shadowed.isEmpty() && shadowed.containsKey(doc.id)) {
+                    continue;
+                }
+                if (criteria.matches(doc)) {
+                    consumer.accept(doc);
+                }
+            }
+        }
+
+        /**
+         * Returns the shortest posting list among the query's trigrams, or null if the
+         * query is too short to prune with trigrams.
+         */
+        private static int[] smallestTrigramPosting(Map<Long, int[]> postings, String query) {
+            if (query.length() < 3) {
+                return null;
+            }
+            int[] smallest = null;
+            for (int i = 0; i + 3 <= query.length(); i++) {
+                int[] posting = postings.get(trigram(query, i));
+                if (posting == null) {
+                    return NO_MATCHES;
+                }
+                smallest = smallest(smallest, posting);
+            }
+            return smallest;
+        }
+
+        private static int[] smallest(int[] current, int[] candidate) {
+            if (candidate == null) {
+                return current;
+            }
+            return current == null || candidate.length < current.length ? candidate : current;
+        }
+
+        private static void addTrigrams(Map<Long, IntList> postings, String text, int ordinal) {
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                IntList posting = postings.computeIfAbsent(trigram(text, i), k -> new IntList());
+                // Ordinals arrive in increasing order, so a repeated trigram only needs a tail check
+                if (posting.size == 0 || posting.values[posting.size - 1] != ordinal) {
+                    posting.add(ordinal);
+                }
+            }
+        }
+
+        private static long trigram(String text, int offset) {
+            return ((long) text.charAt(offset) << 32)
+                    | ((long) text.charAt(offset + 1) << 16)
+                    | text.charAt(offset + 2);
+        }
+
+        private static <K> Map<K, int[]> freeze(Map<K, IntList> lists) {
+            Map<K, int[]> frozen = new HashMap<>(lists.size() * 2);
+            for (Map.Entry<K, IntList> entry : lists.entrySet()) {
+                frozen.put(entry.getKey(), entry.getValue().toArray());
+            }
+            return frozen;
+        }
+
+        private static Double toDouble(BigDecimal value) {
+            return value != null ? value.doubleValue() : null;
+        }
+
+        private static Double toDouble(Integer value) {
+            return value != null ? value.doubleValue() : null;
+        }
+    }
+
+    /**
+     * Similarity features of a snapshot's listings, by ordinal.
+     * <p>
+     * The distance between two listings is a weighted sum of squared differences of log
+     * price, log area, bedrooms and bathrooms, each divided by the column's variance so that
+     * no unit dominates. A different property type adds a fixed penalty, and the location
+     * adds one scaled by how much of the broadest-first path ("Maadi, Cairo" is
+     * cairo &gt; maadi) the two do not share. A missing value counts as two standard
+     * deviations away.
+     */
+    static final class SimilarityFeatures {
+        private static final int PRICE = 0;
+        private static final int AREA = 1;
+        private static final int BEDROOMS = 2;
+        private static final int BATHROOMS = 3;
+        private static final double[] WEIGHTS = {1.0, 1.0, 0.5, 0.25};
+        private static final double MISSING_DEVIATIONS_SQUARED = 4.0;
+        private static final double PROPERTY_TYPE_PENALTY = 1.0;
+        private static final double LOCATION_WEIGHT = 2.0;
+
+        final float[][] columns;
+        final String[][] locationPaths;
+        final double[] scales;
+
+        SimilarityFeatures(Doc[] docs) {
+            this.columns = new float[WEIGHTS.length][docs.length];
+            this.locationPaths = new String[docs.length][];
+            Map<String, String> segments = new HashMap<>();
+
+            for (int ordinal = 0; ordinal < docs.length; ordinal++) {
+                float[] values = values(docs[ordinal]);
+                for (int column = 0; column < values.length; column++) {
+                    columns[column][ordinal] = values[column];
+                }
+                String[] path = locationPath(docs[ordinal].location);
+                for (int i = 0; i < path.length; i++) {
+                    // Shared segment instances make most comparisons an identity check
+                    path[i] = segments.computeIfAbsent(path[i], segment -> segment);
+                }
+                locationPaths[ordinal] = path;
+            }
+
+            this.scales = new double[WEIGHTS.length];
+            for (int column = 0; column < scales.length; column++) {
+                double variance = variance(columns[column]);
+                scales[column] = WEIGHTS[column] / (variance > 0 ? variance : 1.0);
+            }
+        }
+
+        Query query(Doc doc) {
+            return new Query(values(doc), locationPath(doc.location), doc.propertyType);
+        }
+
+        /**
+         * Distance from the listing at the ordinal to the query, giving up as soon as it
+         * reaches the bound; the result is then only known to be at least the bound.
+         */
+        double distance(int ordinal, Doc doc, Query query, double bound) {
+            double distance = 0;
+            for (int column = 0; column < scales.length; column++) {
+                distance += term(column, columns[column][ordinal], query.values[column]);
+            }
+            if (!Objects.equals(doc.propertyType, query.propertyType)) {
+                distance += PROPERTY_TYPE_PENALTY;
+            }
+            if (distance >= bound) {
+                return distance;
+            }
+            return distance + locationTerm(locationPaths[ordinal], query.locationPath);
+        }
+
+        /**
+         * Distance between two listings that are not in the snapshot, such as delta entries.
+         */
+        double distance(Query candidate, Query query) {
+            double distance = 0;
+            for (int column = 0; column < scales.length; column++) {
+                distance += term(column, candidate.values[column], query.values[column]);
+            }
+            if (!Objects.equals(candidate.propertyType, query.propertyType)) {
+                distance += PROPERTY_TYPE_PENALTY;
+            }
+            return distance + locationTerm(candidate.locationPath, query.locationPath);
+        }
+
+        private double term(int column, float value, float other) {
+            if (Float.isNaN(value) || Float.isNaN(other)) {
+                return Float.isNaN(value) && Float.isNaN(other) ? 0 : WEIGHTS[column] * MISSING_DEVIATIONS_SQUARED;
+            }
+            double difference = value - other;
+            return difference * difference * scales[column];
+        }
+
+        private static double locationTerm(String[] path, String[] other) {
+            int depth = Math.max(path.length, other.length);
+            if (depth == 0) {
+                return 0;
+            }
+            int shared = 0;
+            while (shared < path.length && shared < other.length && path[shared].equals(other[shared])) {
+                shared++;
+            }
+            return LOCATION_WEIGHT * (depth - shared) / depth;
+        }
+
+        private static float[] values(Doc doc) {
+            float[] values = new float[WEIGHTS.length];
+            values[PRICE] = doc.price != null ? (float) Math.log1p(Math.max(0, doc.price.doubleValue())) : Float.NaN;
+            values[AREA] = doc.area != null ? (float) Math.log1p(Math.max(0, doc.area)) : Float.NaN;
+            values[BEDROOMS] = doc.bedrooms != null ? doc.bedrooms : Float.NaN;
+            values[BATHROOMS] = doc.bathrooms != null ? doc.bathrooms : Float.NaN;
+            return values;
+        }
+
+        /**
+         * Splits "district, city, country" into lower-cased segments, broadest first.
+         */
+        private static String[] locationPath(String location) {
+            if (location == null || location.isBlank()) {
+                return new String[0];
+            }
+            String[] parts = location.split(",");
+            List<String> path = new ArrayList<>(parts.length);
+            for (int i = parts.length - 1; i >= 0; i--) {
+                String segment = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (!segment.isEmpty()) {
+                    path.add(segment);
+                }
+            }
+            return path.toArray(new String[0]);
+        }
+
+        private static double variance(float[] values) {
+            double sum = 0;
+            double sumOfSquares = 0;
+            int count = 0;
+            for (float value : values) {
+                if (!Float.isNaN(value)) {
+                    sum += value;
+                    sumOfSquares += (double) value * value;
+                    count++;
+                }
+            }
+            if (count < 2) {
+                return 0;
+            }
+            double mean = sum / count;
+            return Math.max(0, sumOfSquares / count - mean * mean);
+        }
+
+        static final class Query {
+            final float[] values;
+            final String[] locationPath;
+            final String propertyType;
+
+            Query(float[] values, String[] locationPath, String propertyType) {
+                this.values = values;
+                this.locationPath = locationPath;
+                this.propertyType = propertyType;
+            }
+        }
+    }
+
+    /**
+     * Non-null values of one numeric column in ascending order, with the ordinal of each value.
+     */
+    static final class SortedColumn {
+        final double[] values;
+        final int[] ordinals;
+
+        private SortedColumn(double[] values, int[] ordinals) {
+            this.values = values;
+            this.ordinals = ordinals;
+        }
+
+        static SortedColumn build(Doc[] docs, ToDoubleFunction<Doc> extractor) {
+            double[] raw = new double[docs.length];
+            IntList present = new IntList();
+            for (int ordinal = 0; ordinal < docs.length; ordinal++) {
+                raw[ordinal] = extractor.applyAsDouble(docs[ordinal]);
+                if (!Double.isNaN(raw[ordinal])) {
+                    present.add(ordinal);
+                }
+            }
+
+            Integer[] order = new Integer[present.size];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = present.values[i];
+            }
+            Arrays.sort(order, Comparator.comparingDouble(ordinal -> raw[ordinal]));
+
+            double[] values = new double[order.length];
+            int[] ordinals = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                ordinals[i] = order[i];
+                values[i] = raw[order[i]];
+            }
+            return new SortedColumn(values, ordinals);
+        }
+
+        /**
+         * Index of the first value greater than or equal to min.
+         */
+        int lowerBound(Double min) {
+            if (min == null) {
+                return 0;
+            }
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < min) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Index just past the last value less than or equal to max.
+         */
+        int upperBound(Double max) {
+            if (max == null) {
+                return values.length;
+            }
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] <= max) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.property_finder.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool saturation metrics, fed by HikariCP through its metrics tracker hook:
+ * how long requests wait for a connection, how long they hold one, timeouts, and the live
+ * active/idle/pending counts, kept per pool when reads are routed to a replica.
+ * <p>
+ * It also keeps a decaying average of recent acquisition waits. While threads are queued
+ * for a connection and that average is above the admission threshold, the pool is
+ * considered saturated and {@link DatabaseAdmissionFilter} turns new requests away. The
+ * pending count matters as much as the average: once shed requests let the queue drain,
+ * nothing is waiting and requests are admitted again even though no new wait has been
+ * recorded to bring the average down.
+ * <p>
+ * Connections held longer than the leak detection threshold are counted when returned;
+ * HikariCP itself logs the stack trace of where such a connection was borrowed.
+ */
+@Component
+public class ConnectionPoolMetrics {
+
+    // Weight of the newest wait in the running average; about the last ten waits dominate
+    private static final double WAIT_SMOOTHING = 0.1;
+
+    private final long admissionWaitNanos;
+    private final List<Pool> pools = new CopyOnWriteArrayList<>();
+    private final LongAdder shed = new LongAdder();
+
+    public ConnectionPoolMetrics(@Value("${app.db.admission.max-wait-ms:250}") long admissionWaitMillis) {
+        this.admissionWaitNanos = TimeUnit.MILLISECONDS.toNanos(admissionWaitMillis);
+    }
+
+    /**
+     * Returns the tracker factory to install on a pool before it starts. Its timeout and
+     * leak detection settings are read when the pool starts, after they have been bound.
+     */
+    public MetricsTrackerFactory trackerFactory(HikariDataSource dataSource) {
+        return (poolName, poolStats) -> {
+            Pool pool = new Pool(poolName, poolStats, dataSource.getConnectionTimeout(),
+                    dataSource.getLeakDetectionThreshold());
+            pools.add(pool);
+            return pool;
+        };
+    }
+
+    /**
+     * True while any pool has threads waiting for a connection and its recent waits have
+     * averaged at least the admission threshold.
+     */
+    public boolean isSaturated() {
+        for (Pool pool : pools) {
+            if (pool.isSaturated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void recordShed() {
+        shed.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        List<Map<String, Object>> poolStats = new ArrayList<>(pools.size());
+        for (Pool pool : pools) {
+            poolStats.add(pool.getStats());
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("saturated", isSaturated());
+        result.put("shedRequests", shed.sum());
+        result.put("pools", poolStats);
+        return result;
+    }
+
+    private static double toMillis(double nanos) {
+        return Math.round(nanos / 1_000) / 1_000.0;
+    }
+
+    private final class Pool implements IMetricsTracker {
+        private final String name;
+        private final PoolStats poolStats;
+        private final long connectionTimeoutNanos;
+        private final long leakThresholdMillis;
+
+        private final LatencyHistogram acquireWait = new LatencyHistogram();
+        private final LatencyHistogram usage = new LatencyHistogram();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder longHeld = new LongAdder();
+        // Bits of a double; updated with compare-and-set
+        private final AtomicLong recentWaitNanos = new AtomicLong(Double.doubleToLongBits(0));
+
+        Pool(String name, PoolStats poolStats, long connectionTimeoutMillis, long leakThresholdMillis) {
+            this.name = name;
+            this.poolStats = poolStats;
+            this.connectionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(connectionTimeoutMillis);
+            this.leakThresholdMillis = leakThresholdMillis;
+        }
+
+        boolean isSaturated() {
+            return poolStats.getPendingThreads() > 0
+                    && Double.longBitsToDouble(recentWaitNanos.get()) >= admissionWaitNanos;
+        }
+
+        Map<String, Object> getStats() {
+            LatencyHistogram.Snapshot waits = acquireWait.snapshot();
+            LatencyHistogram.Snapshot holds = usage.snapshot();
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("pool", name);
+            result.put("total", poolStats.getTotalConnections());
+            result.put("active", poolStats.getActiveConnections());
+            result.put("idle", poolStats.getIdleConnections());
+            result.put("pending", poolStats.getPendingThreads());
+            result.put("max", poolStats.getMaxConnections());
+            result.put("saturated", isSaturated());
+            result.put("acquisitions", waits.getCount());
+            result.put("waitMeanMs", toMillis(waits.getMeanNanos()));
+            result.put("waitP99Ms", toMillis(waits.getValueAtPercentile(99)));
+            result.put("waitMaxMs", toMillis(waits.getMaxNanos()));
+            result.put("recentWaitMs", toMillis(Double.longBitsToDouble(recentWaitNanos.get())));
+            result.put("usageMeanMs", toMillis(holds.getMeanNanos()));
+            result.put("usageP99Ms", toMillis(holds.getValueAtPercentile(99)));
+            result.put("usageMaxMs", toMillis(holds.getMaxNanos()));
+            result.put("timeouts", timeouts.sum());
+            result.put("leakThresholdMs", leakThresholdMillis);
+            result.put("longHeld", longHeld.sum());
+            return result;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquireWait.record(elapsedAcquiredNanos);
+            recordRecentWait(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usage.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+            if (leakThresholdMillis > 0 && elapsedBorrowedMillis >= leakThresholdMillis) {
+                longHeld.increment();
+            }
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+            // The caller waited the whole timeout without getting a connection
+            recordRecentWait(connectionTimeoutNanos);
+        }
+
+        private void recordRecentWait(long nanos) {
+            long current;
+            long updated;
+            do {
+                current = recentWaitNanos.get();
+                double average = Double.longBitsToDouble(current);
+                updated = Double.doubleToLongBits(average + WAIT_SMOOTHING * (nanos - average));
+            } while (!recentWaitNanos.compareAndSet(current, updated));
+        }
+    }
+}
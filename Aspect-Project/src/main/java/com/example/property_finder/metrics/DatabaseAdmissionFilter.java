@@ -0,0 +1,62 @@
+package com.example.property_finder.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Turns API requests away with 503 and a Retry-After header while the connection pool is
+ * saturated, rather than letting them queue for a connection they would most likely time
+ * out waiting for. Runs before authentication so that shed requests cost nothing. The
+ * metrics endpoints stay reachable so the saturation can be observed.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DatabaseAdmissionFilter implements Filter {
+
+    private static final String METRICS_PATH = "/api/metrics/";
+
+    private final ConnectionPoolMetrics poolMetrics;
+    private final DatabaseSaturatedResponse saturatedResponse;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public DatabaseAdmissionFilter(ConnectionPoolMetrics poolMetrics, DatabaseSaturatedResponse saturatedResponse,
+                                   ObjectMapper objectMapper,
+                                   @Value("${app.db.admission.enabled:true}") boolean enabled) {
+        this.poolMetrics = poolMetrics;
+        this.saturatedResponse = saturatedResponse;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest httpReq = (HttpServletRequest) request;
+        if (!enabled || !poolMetrics.isSaturated() || !httpReq.getRequestURI().startsWith("/api/")
+                || httpReq.getRequestURI().startsWith(METRICS_PATH)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        poolMetrics.recordShed();
+        HttpServletResponse httpRes = (HttpServletResponse) response;
+        ResponseEntity<Object> saturated = saturatedResponse.build(httpReq.getRequestURI());
+
+        httpRes.setStatus(saturated.getStatusCode().value());
+        saturated.getHeaders().forEach((name, values) -> values.forEach(value -> httpRes.addHeader(name, value)));
+        httpRes.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(httpRes.getOutputStream(), saturated.getBody());
+    }
+}
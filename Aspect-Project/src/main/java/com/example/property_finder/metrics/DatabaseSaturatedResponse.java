@@ -0,0 +1,39 @@
+package com.example.property_finder.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The 503 answered while the database is saturated, both when {@link DatabaseAdmissionFilter}
+ * turns a request away and when a request times out waiting for a connection, so that
+ * clients see the same body and back off for the same configured Retry-After.
+ */
+@Component
+public class DatabaseSaturatedResponse {
+
+    private final int retryAfterSeconds;
+
+    public DatabaseSaturatedResponse(@Value("${app.db.admission.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public ResponseEntity<Object> build(String path) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "Service Unavailable");
+        body.put("message", "The database is saturated, retry shortly");
+        body.put("path", path);
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(body);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.property_finder.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms for the repository, service and controller methods timed by
+ * {@link MethodTimingAdvisor}, one per method.
+ * <p>
+ * A method's timer is created when Spring builds the method's advice chain, so timing a
+ * call is a map lookup, a histogram update and no allocation. Calls slower than the
+ * configured threshold are logged at WARN, at most once per method per log interval; the
+ * calls skipped in between are counted in the next message.
+ */
+@Component
+public class MethodMetrics {
+
+    private final boolean enabled;
+    private final long slowCallThresholdNanos;
+    private final long slowCallLogIntervalNanos;
+
+    private final Map<Method, MethodTimer> timers = new ConcurrentHashMap<>();
+
+    public MethodMetrics(@Value("${app.metrics.methods.enabled:true}") boolean enabled,
+                         @Value("${app.metrics.slow-call.threshold-ms:500}") long slowCallThresholdMs,
+                         @Value("${app.metrics.slow-call.log-interval-seconds:10}") long slowCallLogIntervalSeconds) {
+        this.enabled = enabled;
+        this.slowCallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowCallThresholdMs);
+        this.slowCallLogIntervalNanos = TimeUnit.SECONDS.toNanos(slowCallLogIntervalSeconds);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    MethodTimer register(Method method) {
+        return timers.computeIfAbsent(method, MethodTimer::new);
+    }
+
+    MethodTimer getTimer(Method method) {
+        return timers.get(method);
+    }
+
+    /**
+     * Per-method latency summaries for methods called at least once, slowest in total first.
+     */
+    public List<Map<String, Object>> getStats(int limit) {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        timers.values().stream()
+                .map(timer -> Map.entry(timer, timer.histogram.snapshot()))
+                .filter(entry -> entry.getValue().getCount() > 0)
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<MethodTimer, LatencyHistogram.Snapshot> entry) -> entry.getValue().getTotalNanos())
+                        .reversed())
+                .limit(limit)
+                .forEach(entry -> stats.add(toStats(entry.getKey(), entry.getValue())));
+        return stats;
+    }
+
+    private static Map<String, Object> toStats(MethodTimer timer, LatencyHistogram.Snapshot snapshot) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("method", timer.name);
+        stats.put("count", snapshot.getCount());
+        stats.put("errors", timer.errors.sum());
+        stats.put("totalMs", toMillis(snapshot.getTotalNanos()));
+        stats.put("meanMs", toMillis(snapshot.getMeanNanos()));
+        stats.put("p50Ms", toMillis(snapshot.getValueAtPercentile(50)));
+        stats.put("p90Ms", toMillis(snapshot.getValueAtPercentile(90)));
+        stats.put("p99Ms", toMillis(snapshot.getValueAtPercentile(99)));
+        stats.put("maxMs", toMillis(snapshot.getMaxNanos()));
+        return stats;
+    }
+
+    private static double toMillis(double nanos) {
+        return Math.round(nanos / 1_000) / 1_000.0;
+    }
+
+    final class MethodTimer {
+
+        private final String name;
+        private final Logger logger;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final AtomicLong nextSlowCallLog = new AtomicLong(System.nanoTime());
+        private final LongAdder unloggedSlowCalls = new LongAdder();
+
+        private MethodTimer(Method method) {
+            StringBuilder name = new StringBuilder(method.getDeclaringClass().getSimpleName())
+                    .append('.').append(method.getName()).append('(');
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                name.append(i == 0 ? "" : ", ").append(parameterTypes[i].getSimpleName());
+            }
+            this.name = name.append(')').toString();
+            this.logger = LoggerFactory.getLogger(method.getDeclaringClass());
+        }
+
+        void record(long nanos, boolean failed) {
+            histogram.record(nanos);
+            if (failed) {
+                errors.increment();
+            }
+            if (nanos >= slowCallThresholdNanos) {
+                logSlowCall(nanos);
+            }
+        }
+
+        private void logSlowCall(long nanos) {
+            long now = System.nanoTime();
+            long next = nextSlowCallLog.get();
+            if (now - next < 0 || !nextSlowCallLog.compareAndSet(next, now + slowCallLogIntervalNanos)) {
+                unloggedSlowCalls.increment();
+                return;
+            }
+            logger.warn("Long execution time detected for {}: {} ms ({} other slow calls since the last report)",
+                    name, TimeUnit.NANOSECONDS.toMillis(nanos), unloggedSlowCalls.sumThenReset());
+        }
+    }
+}
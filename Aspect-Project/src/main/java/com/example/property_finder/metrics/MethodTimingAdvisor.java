@@ -0,0 +1,69 @@
+package com.example.property_finder.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Times every repository, service and controller method into {@link MethodMetrics}.
+ * <p>
+ * Written as an advisor rather than an {@code @Aspect} so that the method is resolved to
+ * its timer while the advice chain is built, not on each call through a join point. It runs
+ * outermost, so the recorded latency includes the other aspects.
+ */
+@Component
+public class MethodTimingAdvisor extends StaticMethodMatcherPointcutAdvisor implements MethodInterceptor {
+
+    // Same scope as LoggingAspect
+    private static final String EXPRESSION =
+            "(within(com.example.property_finder.repository..*)"
+                    + " || within(com.example.property_finder.service..*)"
+                    + " || within(com.example.property_finder.controller..*))"
+                    + " && (within(@org.springframework.stereotype.Repository *)"
+                    + " || within(@org.springframework.stereotype.Service *)"
+                    + " || within(@org.springframework.stereotype.Controller *)"
+                    + " || within(@org.springframework.web.bind.annotation.RestController *))";
+
+    private final MethodMetrics methodMetrics;
+    private final AspectJExpressionPointcut scope = new AspectJExpressionPointcut();
+
+    public MethodTimingAdvisor(MethodMetrics methodMetrics) {
+        this.methodMetrics = methodMetrics;
+        this.scope.setExpression(EXPRESSION);
+        setClassFilter(scope.getClassFilter());
+        setAdvice(this);
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        if (!methodMetrics.isEnabled() || !scope.matches(method, targetClass)) {
+            return false;
+        }
+        methodMetrics.register(method);
+        return true;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodMetrics.MethodTimer timer = methodMetrics.getTimer(invocation.getMethod());
+        if (timer == null) {
+            return invocation.proceed();
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            timer.record(System.nanoTime() - start, failed);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.property_finder.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL activity of a single HTTP request, filled in by the Hibernate hooks while the request
+ * thread is bound to it. Only ever touched by that thread, so no synchronization is needed.
+ */
+public final class SqlProfile {
+
+    // Distinct statement texts remembered per request, enough to spot an N+1 pattern
+    private static final int MAX_DISTINCT_STATEMENTS = 200;
+
+    private final long startNanos = System.nanoTime();
+    private int statements;
+    private long rows;
+    private int entitiesLoaded;
+    private int lazyFetches;
+    private long jdbcNanos;
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+
+    void statementPrepared(String sql) {
+        statements++;
+        if (statementCounts.size() < MAX_DISTINCT_STATEMENTS || statementCounts.containsKey(sql)) {
+            statementCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void queryExecuted(int rowCount) {
+        rows += rowCount;
+    }
+
+    void entityLoaded() {
+        entitiesLoaded++;
+    }
+
+    void lazyFetch() {
+        lazyFetches++;
+    }
+
+    void jdbcExecuted(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public int getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public int getLazyFetches() {
+        return lazyFetches;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * The statement issued most often during the request, or null if none was.
+     */
+    public Map.Entry<String, Integer> getMostRepeatedStatement() {
+        Map.Entry<String, Integer> mostRepeated = null;
+        for (Map.Entry<String, Integer> entry : statementCounts.entrySet()) {
+            if (mostRepeated == null || entry.getValue() > mostRepeated.getValue()) {
+                mostRepeated = entry;
+            }
+        }
+        return mostRepeated;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.property_finder.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the SQL statements, rows and JDBC time of each HTTP request and flags requests that
+ * issue more statements than the configured budget, which is how an N+1 regression shows up.
+ * <p>
+ * {@link SqlProfilingFilter} binds a {@link SqlProfile} to the request thread; the Hibernate
+ * hooks registered by {@code SqlProfilingConfig} find it through {@link #current()}. Work done
+ * on other threads, such as index loading or the body of a streamed export, is not counted.
+ * Totals are kept per endpoint pattern, and the last over-budget requests are kept for
+ * inspection together with their most repeated statement.
+ */
+@Component
+public class SqlProfiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlProfiler.class);
+
+    private static final ThreadLocal<SqlProfile> CURRENT = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final boolean responseHeaders;
+    private final int statementBudget;
+    private final int recentLimit;
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+    // Guarded by itself
+    private final Deque<Map<String, Object>> recentOverBudget = new ArrayDeque<>();
+
+    public SqlProfiler(@Value("${app.sql.profiler.enabled:true}") boolean enabled,
+                       @Value("${app.sql.profiler.response-headers:true}") boolean responseHeaders,
+                       @Value("${app.sql.profiler.statement-budget:20}") int statementBudget,
+                       @Value("${app.sql.profiler.recent-limit:50}") int recentLimit) {
+        this.enabled = enabled;
+        this.responseHeaders = responseHeaders;
+        this.statementBudget = statementBudget;
+        this.recentLimit = recentLimit;
+    }
+
+    /**
+     * Profile of the request being handled on this thread, or null outside a request.
+     */
+    static SqlProfile current() {
+        return CURRENT.get();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    boolean isResponseHeaders() {
+        return responseHeaders;
+    }
+
+    int getStatementBudget() {
+        return statementBudget;
+    }
+
+    SqlProfile begin() {
+        SqlProfile profile = new SqlProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    void end(SqlProfile profile, String method, String endpoint, int status) {
+        CURRENT.remove();
+        requests.increment();
+
+        String key = method + " " + endpoint;
+        EndpointStats stats = endpoints.computeIfAbsent(key, ignored -> new EndpointStats());
+        stats.record(profile);
+
+        if (profile.getStatements() <= statementBudget) {
+            return;
+        }
+
+        overBudget.increment();
+        stats.overBudget.increment();
+
+        Map.Entry<String, Integer> mostRepeated = profile.getMostRepeatedStatement();
+        logger.warn("{} issued {} SQL statements, over the budget of {}; most repeated ({}x): {}",
+                key, profile.getStatements(), statementBudget,
+                mostRepeated.getValue(), mostRepeated.getKey());
+
+        Map<String, Object> entry = toStats(profile);
+        entry.put("request", key);
+        entry.put("status", status);
+        entry.put("at", Instant.now().toString());
+        entry.put("mostRepeatedStatement", mostRepeated.getKey());
+        entry.put("mostRepeatedCount", mostRepeated.getValue());
+        synchronized (recentOverBudget) {
+            recentOverBudget.addFirst(entry);
+            while (recentOverBudget.size() > recentLimit) {
+                recentOverBudget.removeLast();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        List<Map<String, Object>> endpointStats = new ArrayList<>();
+        endpoints.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, EndpointStats> entry) -> entry.getValue().maxStatements.get()).reversed())
+                .forEach(entry -> {
+                    Map<String, Object> stats = entry.getValue().toStats();
+                    stats.put("endpoint", entry.getKey());
+                    endpointStats.add(stats);
+                });
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("statementBudget", statementBudget);
+        stats.put("requests", requests.sum());
+        stats.put("overBudget", overBudget.sum());
+        stats.put("endpoints", endpointStats);
+        synchronized (recentOverBudget) {
+            stats.put("recentOverBudget", new ArrayList<>(recentOverBudget));
+        }
+        return stats;
+    }
+
+    private static Map<String, Object> toStats(SqlProfile profile) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("statements", profile.getStatements());
+        stats.put("rows", profile.getRows());
+        stats.put("entitiesLoaded", profile.getEntitiesLoaded());
+        stats.put("lazyFetches", profile.getLazyFetches());
+        stats.put("jdbcMs", toMillis(profile.getJdbcNanos()));
+        stats.put("elapsedMs", toMillis(profile.getElapsedNanos()));
+        return stats;
+    }
+
+    static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static final class EndpointStats {
+        final LongAdder requests = new LongAdder();
+        final LongAdder overBudget = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder jdbcNanos = new LongAdder();
+        final AtomicLong maxStatements = new AtomicLong();
+        final AtomicLong maxJdbcNanos = new AtomicLong();
+
+        void record(SqlProfile profile) {
+            requests.increment();
+            statements.add(profile.getStatements());
+            rows.add(profile.getRows());
+            jdbcNanos.add(profile.getJdbcNanos());
+            maxStatements.accumulateAndGet(profile.getStatements(), Math::max);
+            maxJdbcNanos.accumulateAndGet(profile.getJdbcNanos(), Math::max);
+        }
+
+        Map<String, Object> toStats() {
+            long count = Math.max(1, requests.sum());
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", requests.sum());
+            stats.put("overBudget", overBudget.sum());
+            stats.put("meanStatements", Math.round(statements.sum() * 10.0 / count) / 10.0);
+            stats.put("maxStatements", maxStatements.get());
+            stats.put("meanRows", Math.round(rows.sum() * 10.0 / count) / 10.0);
+            stats.put("meanJdbcMs", toMillis(jdbcNanos.sum() / count));
+            stats.put("maxJdbcMs", toMillis(maxJdbcNanos.get()));
+            return stats;
+        }
+    }
+}
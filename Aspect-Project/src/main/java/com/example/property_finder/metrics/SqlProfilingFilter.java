@@ -0,0 +1,92 @@
+package com.example.property_finder.metrics;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Profiles the SQL issued while handling each request and reports it in {@code X-SQL-*}
+ * response headers. The headers are written just before the response is committed, so a
+ * streamed body only reports the statements issued up to that point.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlProfilingFilter implements Filter {
+
+    private final SqlProfiler sqlProfiler;
+
+    public SqlProfilingFilter(SqlProfiler sqlProfiler) {
+        this.sqlProfiler = sqlProfiler;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        if (!sqlProfiler.isEnabled() || SqlProfiler.current() != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest httpReq = (HttpServletRequest) request;
+        HttpServletResponse httpRes = (HttpServletResponse) response;
+
+        SqlProfile profile = sqlProfiler.begin();
+        HttpServletResponse profiledRes = sqlProfiler.isResponseHeaders()
+                ? new HeaderWritingResponse(httpRes, profile, sqlProfiler.getStatementBudget())
+                : httpRes;
+        try {
+            chain.doFilter(request, profiledRes);
+        } finally {
+            if (profiledRes instanceof HeaderWritingResponse headerWriting && !httpRes.isCommitted()) {
+                headerWriting.writeHeaders();
+            }
+            sqlProfiler.end(profile, httpReq.getMethod(), endpoint(httpReq), httpRes.getStatus());
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Raw URIs of unmatched requests would make the per-endpoint map unbounded
+        return pattern != null ? pattern.toString() : "UNMAPPED";
+    }
+
+    private static final class HeaderWritingResponse extends OnCommittedResponseWrapper {
+
+        private final SqlProfile profile;
+        private final int statementBudget;
+        private boolean headersWritten;
+
+        HeaderWritingResponse(HttpServletResponse response, SqlProfile profile, int statementBudget) {
+            super(response);
+            this.profile = profile;
+            this.statementBudget = statementBudget;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            if (headersWritten) {
+                return;
+            }
+            headersWritten = true;
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            response.setHeader("X-SQL-Statements", String.valueOf(profile.getStatements()));
+            response.setHeader("X-SQL-Rows", String.valueOf(profile.getRows()));
+            response.setHeader("X-SQL-Time-Ms", String.valueOf(SqlProfiler.toMillis(profile.getJdbcNanos())));
+            if (profile.getStatements() > statementBudget) {
+                response.setHeader("X-SQL-Budget-Exceeded", "true");
+            }
+        }
+    }
+}
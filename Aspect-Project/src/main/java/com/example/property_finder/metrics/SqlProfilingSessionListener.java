@@ -0,0 +1,39 @@
+package com.example.property_finder.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the time spent executing JDBC statements and batches to the current request's profile.
+ * Hibernate creates one instance per session, which is only used by one thread at a time.
+ */
+public class SqlProfilingSessionListener implements SessionEventListener {
+
+    private long executeStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        recordExecution();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        recordExecution();
+    }
+
+    private void recordExecution() {
+        SqlProfile profile = SqlProfiler.current();
+        if (profile != null) {
+            profile.jdbcExecuted(System.nanoTime() - executeStart);
+        }
+    }
+}
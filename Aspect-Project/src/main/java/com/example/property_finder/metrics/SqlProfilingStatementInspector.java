@@ -0,0 +1,18 @@
+package com.example.property_finder.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares against the current request's profile.
+ */
+public class SqlProfilingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlProfile profile = SqlProfiler.current();
+        if (profile != null) {
+            profile.statementPrepared(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.property_finder.metrics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+/**
+ * Hibernate statistics that also attribute query rows, entity loads and lazy fetches to the
+ * current request's profile. A burst of lazy fetches within one request is the usual
+ * signature of an N+1 query.
+ */
+public class SqlProfilingStatistics extends StatisticsImpl {
+
+    public SqlProfilingStatistics(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        SqlProfile profile = SqlProfiler.current();
+        if (profile != null) {
+            profile.queryExecuted(rows);
+        }
+    }
+
+    @Override
+    public void loadEntity(String entityName) {
+        super.loadEntity(entityName);
+        SqlProfile profile = SqlProfiler.current();
+        if (profile != null) {
+            profile.entityLoaded();
+        }
+    }
+
+    @Override
+    public void fetchEntity(String entityName) {
+        super.fetchEntity(entityName);
+        SqlProfile profile = SqlProfiler.current();
+        if (profile != null) {
+            profile.lazyFetch();
+        }
+    }
+
+    @Override
+    public void fetchCollection(String role) {
+        super.fetchCollection(role);
+        SqlProfile profile = SqlProfiler.current();
+        if (profile != null) {
+            profile.lazyFetch();
+        }
+    }
+}
@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 @Table(name = "bookmarks")
 public class Bookmark {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookmark_seq")
+    @SequenceGenerator(name = "bookmark_seq", sequenceName = "bookmarks_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,15 +1,23 @@
 package com.example.property_finder.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "locations")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "locations")
+@Table(name = "locations", indexes = {
+    @Index(name = "idx_locations_lat_lon", columnList = "latitude, longitude")
+})
 public class Location {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "location_seq")
+  @SequenceGenerator(name = "location_seq", sequenceName = "locations_seq", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false)
@@ -25,6 +33,7 @@ public class Location {
   private Location parentLocation;
 
   @OneToMany(mappedBy = "parentLocation", cascade = CascadeType.ALL)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "location_children")
   private List<Location> subLocations = new ArrayList<>();
 
   private Double latitude;
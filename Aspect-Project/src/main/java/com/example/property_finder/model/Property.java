@@ -1,6 +1,8 @@
 package com.example.property_finder.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -10,7 +12,8 @@ import java.util.List;
 @Table(name = "properties")
 public class Property {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "property_seq")
+    @SequenceGenerator(name = "property_seq", sequenceName = "properties_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -38,6 +41,16 @@ public class Property {
     @OneToMany(mappedBy = "property", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PropertyImage> images = new ArrayList<>();
 
+    // Running review aggregates. They are only ever changed by the atomic increments in
+    // ReviewRepository, never by flushing this entity, so a stale copy cannot overwrite them.
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long ratingSum;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long reviewCount;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -185,6 +198,21 @@ public class Property {
         this.updatedAt = updatedAt;
     }
 
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    /**
+     * Mean review rating, or null if the property has no reviews.
+     */
+    public Double getAverageRating() {
+        return reviewCount == 0 ? null : (double) ratingSum / reviewCount;
+    }
+
     @Override
     public String toString() {
         return "Property{" +
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class ViewingRequest {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "viewing_request_seq")
+  @SequenceGenerator(name = "viewing_request_seq", sequenceName = "viewing_request_seq", allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
@@ -1,18 +1,27 @@
 package com.example.property_finder.repository;
 
+import com.example.property_finder.index.GeoBoundingBox;
 import com.example.property_finder.model.Location;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public class LocationRepository {
 
+    private static final int ID_BATCH_SIZE = 1000;
+
+    // Query cache region of the location hierarchy lookups; Hibernate drops its results
+    // whenever the locations table changes
+    private static final String QUERY_CACHE_REGION = "location_queries";
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -25,10 +34,37 @@ public class LocationRepository {
         return Optional.ofNullable(location);
     }
 
+    public List<Location> findByIdIn(List<Long> ids) {
+        List<Location> locations = new ArrayList<>(ids.size());
+
+        // Keep IN lists well below the bind parameter limits of the database drivers
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size()));
+            TypedQuery<Location> query = entityManager.createQuery(
+                    "SELECT l FROM Location l WHERE l.id IN :ids", Location.class);
+            query.setParameter("ids", batch);
+            locations.addAll(query.getResultList());
+        }
+
+        return locations;
+    }
+
+    /**
+     * Returns id, latitude and longitude of every location that has coordinates.
+     */
+    public List<Object[]> findGeoIndexRows() {
+        return entityManager.createQuery(
+                "SELECT l.id, l.latitude, l.longitude FROM Location l " +
+                "WHERE l.latitude IS NOT NULL AND l.longitude IS NOT NULL", Object[].class)
+                .getResultList();
+    }
+
     public List<Location> findByType(String type) {
         TypedQuery<Location> query = entityManager.createQuery(
                 "SELECT l FROM Location l WHERE l.type = :type", Location.class);
         query.setParameter("type", type);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        query.setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION);
         return query.getResultList();
     }
 
@@ -42,6 +78,8 @@ public class LocationRepository {
     public List<Location> findRootLocations() {
         TypedQuery<Location> query = entityManager.createQuery(
                 "SELECT l FROM Location l WHERE l.parentLocation IS NULL", Location.class);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        query.setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION);
         return query.getResultList();
     }
 
@@ -57,20 +95,46 @@ public class LocationRepository {
                 "SELECT l FROM Location l WHERE l.parentLocation.name = :cityName AND l.type = 'Neighborhood'",
                 Location.class);
         query.setParameter("cityName", cityName);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        query.setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION);
         return query.getResultList();
     }
 
-    public List<Location> findNearbyLocations(Double latitude, Double longitude, Double radiusInKm) {
-        // Haversine formula for distance calculation
-        String queryString = "SELECT l FROM Location l WHERE " +
-                "(6371 * acos(cos(radians(:latitude)) * cos(radians(l.latitude)) * " +
+    /**
+     * Returns up to maxResults locations within the radius, closest first. A bounding box on
+     * latitude and longitude is checked before the distance so that the (latitude, longitude)
+     * index can narrow the rows the trigonometry runs on.
+     */
+    public List<Location> findNearbyLocations(Double latitude, Double longitude, Double radiusInKm,
+                                              int maxResults) {
+        GeoBoundingBox box = GeoBoundingBox.around(latitude, longitude, radiusInKm);
+
+        // Spherical law of cosines; LEAST keeps rounding from pushing acos out of its domain
+        String distance = "(6371 * acos(LEAST(1.0, cos(radians(:latitude)) * cos(radians(l.latitude)) * " +
                 "cos(radians(l.longitude) - radians(:longitude)) + " +
-                "sin(radians(:latitude)) * sin(radians(l.latitude)))) <= :radius";
+                "sin(radians(:latitude)) * sin(radians(l.latitude)))))";
+
+        StringBuilder queryString = new StringBuilder(
+                "SELECT l FROM Location l WHERE l.latitude BETWEEN :minLatitude AND :maxLatitude");
+        if (box.crossesAntimeridian()) {
+            queryString.append(" AND (l.longitude >= :minLongitude OR l.longitude <= :maxLongitude)");
+        } else if (!box.isAllLongitudes()) {
+            queryString.append(" AND l.longitude BETWEEN :minLongitude AND :maxLongitude");
+        }
+        queryString.append(" AND ").append(distance).append(" <= :radius");
+        queryString.append(" ORDER BY ").append(distance).append(", l.id");
 
-        TypedQuery<Location> query = entityManager.createQuery(queryString, Location.class);
+        TypedQuery<Location> query = entityManager.createQuery(queryString.toString(), Location.class);
         query.setParameter("latitude", latitude);
         query.setParameter("longitude", longitude);
         query.setParameter("radius", radiusInKm);
+        query.setParameter("minLatitude", box.getMinLatitude());
+        query.setParameter("maxLatitude", box.getMaxLatitude());
+        if (!box.isAllLongitudes()) {
+            query.setParameter("minLongitude", box.getMinLongitude());
+            query.setParameter("maxLongitude", box.getMaxLongitude());
+        }
+        query.setMaxResults(maxResults);
 
         return query.getResultList();
     }
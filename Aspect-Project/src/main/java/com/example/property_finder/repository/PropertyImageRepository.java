@@ -64,6 +64,31 @@ public class PropertyImageRepository {
         }
     }
 
+    /**
+     * Persists new images, flushing and clearing the persistence context every batchSize rows
+     * so the inserts go out as JDBC batches. The returned images are detached.
+     */
+    @Transactional
+    public List<PropertyImage> persistAll(List<PropertyImage> images, int batchSize) {
+        for (int i = 0; i < images.size(); i++) {
+            entityManager.persist(images.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return images;
+    }
+
+    @Transactional
+    public void unsetPrimaryImages(Long propertyId) {
+        entityManager.createQuery("UPDATE PropertyImage pi SET pi.isPrimary = false WHERE pi.property.id = :propertyId")
+                .setParameter("propertyId", propertyId)
+                .executeUpdate();
+    }
+
     @Transactional
     public void deleteById(Long id) {
         PropertyImage image = entityManager.find(PropertyImage.class, id);
@@ -1,20 +1,42 @@
 package com.example.property_finder.repository;
 
+import com.example.property_finder.dto.PropertyDTO;
+import com.example.property_finder.dto.PropertyVersionDTO;
 import com.example.property_finder.dto.PropertySearchDTO;
+import com.example.property_finder.dto.PropertySortField;
+import com.example.property_finder.dto.SearchCursor;
 import com.example.property_finder.model.Property;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class PropertyRepository {
 
+    private static final int ID_BATCH_SIZE = 1000;
+
+    // Selects exactly the PropertyDTO columns with a single join to the owner
+    private static final String DTO_SELECT = "SELECT new com.example.property_finder.dto.PropertyDTO(" +
+            "p.id, p.title, p.description, p.price, p.location, p.bedrooms, p.bathrooms, p.area, " +
+            "p.propertyType, p.listingType, o.id, o.firstName, o.lastName, p.ratingSum, p.reviewCount) " +
+            "FROM Property p LEFT JOIN p.owner o";
+
+    private static final String VERSION_AGGREGATES =
+            "MAX(p.updatedAt), MAX(o.updatedAt), %s, COUNT(p), SUM(p.reviewCount), SUM(p.ratingSum)";
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -27,6 +49,123 @@ public class PropertyRepository {
         return Optional.ofNullable(property);
     }
 
+    public List<Property> findByIdIn(List<Long> ids) {
+        List<Property> properties = new ArrayList<>(ids.size());
+
+        // Keep IN lists well below the bind parameter limits of the database drivers
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size()));
+            TypedQuery<Property> query = entityManager.createQuery(
+                    "SELECT p FROM Property p LEFT JOIN FETCH p.owner WHERE p.id IN :ids ORDER BY p.id",
+                    Property.class);
+            query.setParameter("ids", batch);
+            properties.addAll(query.getResultList());
+        }
+
+        return properties;
+    }
+
+    /**
+     * Returns the owner id of a property without loading it; empty if the property does not
+     * exist or has no owner.
+     */
+    public Optional<Long> findOwnerIdById(Long id) {
+        TypedQuery<Long> query = entityManager.createQuery(
+                "SELECT p.owner.id FROM Property p WHERE p.id = :id", Long.class);
+        query.setParameter("id", id);
+        return query.getResultList().stream().filter(ownerId -> ownerId != null).findFirst();
+    }
+
+    public Optional<PropertyDTO> findDTOById(Long id) {
+        TypedQuery<PropertyDTO> query = entityManager.createQuery(
+                DTO_SELECT + " WHERE p.id = :id", PropertyDTO.class);
+        query.setParameter("id", id);
+        return query.getResultList().stream().findFirst();
+    }
+
+    /**
+     * Reads the fingerprint of one listing's DTO without loading it; empty if the listing
+     * does not exist.
+     */
+    public Optional<PropertyVersionDTO> findVersionById(Long id) {
+        TypedQuery<PropertyVersionDTO> query = entityManager.createQuery(
+                "SELECT new com.example.property_finder.dto.PropertyVersionDTO(p.updatedAt, o.updatedAt, " +
+                "(SELECT MAX(r.updatedAt) FROM Review r WHERE r.property = p), p.reviewCount, p.ratingSum) " +
+                "FROM Property p LEFT JOIN p.owner o WHERE p.id = :id", PropertyVersionDTO.class);
+        query.setParameter("id", id);
+        return query.getResultList().stream().findFirst();
+    }
+
+    /**
+     * Reads the fingerprint of the list of all listings with a single aggregate query.
+     */
+    public PropertyVersionDTO findVersion() {
+        return entityManager.createQuery(
+                "SELECT new com.example.property_finder.dto.PropertyVersionDTO(" +
+                VERSION_AGGREGATES.formatted("(SELECT MAX(r.updatedAt) FROM Review r)") +
+                ") FROM Property p LEFT JOIN p.owner o", PropertyVersionDTO.class).getSingleResult();
+    }
+
+    /**
+     * Reads the fingerprint of one owner's listings with a single aggregate query.
+     */
+    public PropertyVersionDTO findVersionByOwnerId(Long ownerId) {
+        TypedQuery<PropertyVersionDTO> query = entityManager.createQuery(
+                "SELECT new com.example.property_finder.dto.PropertyVersionDTO(" +
+                VERSION_AGGREGATES.formatted(
+                        "(SELECT MAX(r.updatedAt) FROM Review r WHERE r.property.owner.id = :ownerId)") +
+                ") FROM Property p LEFT JOIN p.owner o WHERE o.id = :ownerId", PropertyVersionDTO.class);
+        query.setParameter("ownerId", ownerId);
+        return query.getSingleResult();
+    }
+
+    public List<PropertyDTO> findAllDTOs() {
+        return entityManager.createQuery(DTO_SELECT, PropertyDTO.class).getResultList();
+    }
+
+    /**
+     * Returns the limit most recently created listings, newest first; listings without a
+     * creation time come last.
+     */
+    public List<PropertyDTO> findNewestDTOs(int limit) {
+        return entityManager.createQuery(DTO_SELECT + " ORDER BY p.createdAt DESC NULLS LAST, p.id DESC",
+                        PropertyDTO.class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public List<PropertyDTO> findDTOsByOwnerId(Long ownerId) {
+        TypedQuery<PropertyDTO> query = entityManager.createQuery(
+                DTO_SELECT + " WHERE o.id = :ownerId", PropertyDTO.class);
+        query.setParameter("ownerId", ownerId);
+        return query.getResultList();
+    }
+
+    public List<PropertyDTO> findDTOsByIdIn(List<Long> ids) {
+        List<PropertyDTO> properties = new ArrayList<>(ids.size());
+
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size()));
+            TypedQuery<PropertyDTO> query = entityManager.createQuery(
+                    DTO_SELECT + " WHERE p.id IN :ids ORDER BY p.id", PropertyDTO.class);
+            query.setParameter("ids", batch);
+            properties.addAll(query.getResultList());
+        }
+
+        return properties;
+    }
+
+    /**
+     * Returns the indexed columns of every property without hydrating entities: id, title,
+     * location, price, area, bedrooms, bathrooms, propertyType, listingType, createdAt.
+     */
+    public List<Object[]> findSearchIndexRows() {
+        return entityManager.createQuery(
+                "SELECT p.id, p.title, p.location, p.price, p.area, p.bedrooms, p.bathrooms, " +
+                        "p.propertyType, p.listingType, p.createdAt FROM Property p", Object[].class)
+                .getResultList();
+    }
+
     public List<Property> findByLocation(String location) {
         TypedQuery<Property> query = entityManager.createQuery(
                 "SELECT p FROM Property p WHERE p.location LIKE :location", Property.class);
@@ -120,10 +259,120 @@ public class PropertyRepository {
 
     public List<Property> advancedSearch(PropertySearchDTO searchDTO) {
         StringBuilder queryString = new StringBuilder("SELECT p FROM Property p WHERE 1=1");
+        appendSearchCriteria(queryString, searchDTO);
+
+        TypedQuery<Property> query = entityManager.createQuery(queryString.toString(), Property.class);
+        bindSearchCriteria(query, searchDTO);
 
+        return query.getResultList();
+    }
+
+    public List<PropertyDTO> advancedSearchDTOs(PropertySearchDTO searchDTO) {
+        StringBuilder queryString = new StringBuilder(DTO_SELECT).append(" WHERE 1=1");
+        appendSearchCriteria(queryString, searchDTO);
+
+        TypedQuery<PropertyDTO> query = entityManager.createQuery(queryString.toString(), PropertyDTO.class);
+        bindSearchCriteria(query, searchDTO);
+
+        return query.getResultList();
+    }
+
+    /**
+     * Returns up to maxResults matches ordered by (sortField, id), starting strictly after
+     * the given cursor. Seeking on the sort key instead of using an offset keeps the cost
+     * of deep pages the same as the first one.
+     */
+    public List<Property> advancedSearchPage(PropertySearchDTO searchDTO, PropertySortField sortField,
+                                             boolean descending, SearchCursor after, int maxResults) {
+        StringBuilder queryString = new StringBuilder("SELECT p FROM Property p LEFT JOIN FETCH p.owner WHERE 1=1");
+        appendSearchCriteria(queryString, searchDTO);
+
+        String sortExpression = sortField.getJpqlExpression();
+        String comparison = descending ? "<" : ">";
+        if (after != null) {
+            if (sortField == PropertySortField.ID) {
+                queryString.append(" AND p.id ").append(comparison).append(" :afterId");
+            } else {
+                queryString.append(" AND (").append(sortExpression).append(" ").append(comparison)
+                        .append(" :afterValue OR (").append(sortExpression)
+                        .append(" = :afterValue AND p.id ").append(comparison).append(" :afterId))");
+            }
+        }
+
+        String direction = descending ? " DESC" : " ASC";
+        queryString.append(" ORDER BY ");
+        if (sortField != PropertySortField.ID) {
+            queryString.append(sortExpression).append(direction).append(", ");
+        }
+        queryString.append("p.id").append(direction);
+
+        TypedQuery<Property> query = entityManager.createQuery(queryString.toString(), Property.class);
+        bindSearchCriteria(query, searchDTO);
+        if (after != null) {
+            query.setParameter("afterId", after.getId());
+            if (sortField != PropertySortField.ID) {
+                query.setParameter("afterValue", after.getSortValue());
+            }
+        }
+        query.setMaxResults(maxResults);
+
+        return query.getResultList();
+    }
+
+    /**
+     * Walks all matches in id order through a forward-only cursor, handing each row to the
+     * consumer. The persistence context is cleared every batchSize rows so memory use does
+     * not grow with the result size; must be called inside a transaction.
+     */
+    public void streamAdvancedSearch(PropertySearchDTO searchDTO, int batchSize, Consumer<Property> consumer) {
+        StringBuilder queryString = new StringBuilder("SELECT p FROM Property p LEFT JOIN FETCH p.owner WHERE 1=1");
+        appendSearchCriteria(queryString, searchDTO);
+        queryString.append(" ORDER BY p.id");
+
+        Query<Property> query = entityManager.unwrap(Session.class)
+                .createQuery(queryString.toString(), Property.class);
+        bindSearchCriteria(query, searchDTO);
+        query.setFetchSize(batchSize);
+        query.setReadOnly(true);
+
+        int count = 0;
+        try (ScrollableResults<Property> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                consumer.accept(results.get());
+                if (++count % batchSize == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks the ranking inputs of every listing through a forward-only cursor without
+     * hydrating entities: id, createdAt, ratingSum, reviewCount and bookmark count. Must be
+     * called inside a transaction.
+     */
+    public void streamFeaturedRankingRows(int batchSize, Consumer<Object[]> consumer) {
+        Query<Object[]> query = entityManager.unwrap(Session.class).createQuery(
+                "SELECT p.id, p.createdAt, p.ratingSum, p.reviewCount, COUNT(b) " +
+                "FROM Property p LEFT JOIN Bookmark b ON b.property = p " +
+                "GROUP BY p.id, p.createdAt, p.ratingSum, p.reviewCount", Object[].class);
+        query.setFetchSize(batchSize);
+        query.setReadOnly(true);
+
+        try (ScrollableResults<Object[]> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                consumer.accept(results.get());
+            }
+        }
+    }
+
+    private void appendSearchCriteria(StringBuilder queryString, PropertySearchDTO searchDTO) {
         if (searchDTO.getLocation() != null && !searchDTO.getLocation().isEmpty()) {
             queryString.append(" AND p.location LIKE :location");
         }
+        if (searchDTO.getKeyword() != null && !searchDTO.getKeyword().isEmpty()) {
+            queryString.append(" AND LOWER(p.title) LIKE :keyword");
+        }
         if (searchDTO.getMinPrice() != null) {
             queryString.append(" AND p.price >= :minPrice");
         }
@@ -148,12 +397,15 @@ public class PropertyRepository {
         if (searchDTO.getListingType() != null && !searchDTO.getListingType().isEmpty()) {
             queryString.append(" AND p.listingType = :listingType");
         }
+    }
 
-        TypedQuery<Property> query = entityManager.createQuery(queryString.toString(), Property.class);
-
+    private void bindSearchCriteria(TypedQuery<?> query, PropertySearchDTO searchDTO) {
         if (searchDTO.getLocation() != null && !searchDTO.getLocation().isEmpty()) {
             query.setParameter("location", "%" + searchDTO.getLocation() + "%");
         }
+        if (searchDTO.getKeyword() != null && !searchDTO.getKeyword().isEmpty()) {
+            query.setParameter("keyword", "%" + searchDTO.getKeyword().toLowerCase(Locale.ROOT) + "%");
+        }
         if (searchDTO.getMinPrice() != null) {
             query.setParameter("minPrice", searchDTO.getMinPrice());
         }
@@ -178,8 +430,6 @@ public class PropertyRepository {
         if (searchDTO.getListingType() != null && !searchDTO.getListingType().isEmpty()) {
             query.setParameter("listingType", searchDTO.getListingType());
         }
-
-        return query.getResultList();
     }
 
     @Transactional
@@ -192,6 +442,26 @@ public class PropertyRepository {
         }
     }
 
+    /**
+     * Persists new listings, flushing and clearing the persistence context every batchSize
+     * rows so the inserts go out as JDBC batches and memory use stays flat. Anything else
+     * managed by the current persistence context is detached as well, and so are the
+     * returned listings.
+     */
+    @Transactional
+    public List<Property> persistAll(List<Property> properties, int batchSize) {
+        for (int i = 0; i < properties.size(); i++) {
+            entityManager.persist(properties.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return properties;
+    }
+
     @Transactional
     public void deleteById(Long id) {
         Property property = entityManager.find(Property.class, id);
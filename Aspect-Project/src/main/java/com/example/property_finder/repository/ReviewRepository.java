@@ -1,5 +1,7 @@
 package com.example.property_finder.repository;
 
+import com.example.property_finder.dto.ReviewOwnershipDTO;
+import com.example.property_finder.dto.ReviewStatsDTO;
 import com.example.property_finder.model.Review;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
@@ -8,12 +10,15 @@ import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public class ReviewRepository {
 
+    private static final int ID_BATCH_SIZE = 1000;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -26,6 +31,29 @@ public class ReviewRepository {
         return Optional.ofNullable(review);
     }
 
+    /**
+     * Returns the author id of a review without loading it; empty if the review does not
+     * exist or has no author.
+     */
+    public Optional<Long> findAuthorIdById(Long id) {
+        TypedQuery<Long> query = entityManager.createQuery(
+                "SELECT r.user.id FROM Review r WHERE r.id = :id", Long.class);
+        query.setParameter("id", id);
+        return query.getResultList().stream().filter(authorId -> authorId != null).findFirst();
+    }
+
+    /**
+     * Returns the author id and the reviewed property's owner id in a single query.
+     */
+    public Optional<ReviewOwnershipDTO> findOwnershipById(Long id) {
+        TypedQuery<ReviewOwnershipDTO> query = entityManager.createQuery(
+                "SELECT new com.example.property_finder.dto.ReviewOwnershipDTO(r.id, u.id, o.id) " +
+                "FROM Review r LEFT JOIN r.user u LEFT JOIN r.property p LEFT JOIN p.owner o " +
+                "WHERE r.id = :id", ReviewOwnershipDTO.class);
+        query.setParameter("id", id);
+        return query.getResultList().stream().findFirst();
+    }
+
     public List<Review> findByPropertyId(Long propertyId) {
         TypedQuery<Review> query = entityManager.createQuery(
                 "SELECT r FROM Review r WHERE r.property.id = :propertyId ORDER BY r.createdAt DESC",
@@ -55,20 +83,55 @@ public class ReviewRepository {
         }
     }
 
-    public Double getAverageRatingByPropertyId(Long propertyId) {
-        TypedQuery<Double> query = entityManager.createQuery(
-                "SELECT AVG(r.rating) FROM Review r WHERE r.property.id = :propertyId",
-                Double.class);
-        query.setParameter("propertyId", propertyId);
-        return query.getSingleResult();
+    /**
+     * Reads the rating aggregates of many properties in one query per
+     * {@value #ID_BATCH_SIZE} ids. Ids of properties that do not exist are left out.
+     */
+    public List<ReviewStatsDTO> findStatsByPropertyIds(List<Long> propertyIds) {
+        List<ReviewStatsDTO> stats = new ArrayList<>(propertyIds.size());
+
+        // Keep IN lists well below the bind parameter limits of the database drivers
+        for (int from = 0; from < propertyIds.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = propertyIds.subList(from, Math.min(from + ID_BATCH_SIZE, propertyIds.size()));
+            TypedQuery<ReviewStatsDTO> query = entityManager.createQuery(
+                    "SELECT new com.example.property_finder.dto.ReviewStatsDTO(p.id, p.ratingSum, p.reviewCount) " +
+                    "FROM Property p WHERE p.id IN :propertyIds", ReviewStatsDTO.class);
+            query.setParameter("propertyIds", batch);
+            stats.addAll(query.getResultList());
+        }
+
+        return stats;
     }
 
-    public Long getReviewCountByPropertyId(Long propertyId) {
-        TypedQuery<Long> query = entityManager.createQuery(
-                "SELECT COUNT(r) FROM Review r WHERE r.property.id = :propertyId",
-                Long.class);
-        query.setParameter("propertyId", propertyId);
-        return query.getSingleResult();
+    /**
+     * Adds the deltas to the property's rating sum and review count in a single UPDATE, so
+     * concurrent review writes cannot lose each other's changes. Must run in the transaction
+     * that writes the review.
+     */
+    @Transactional
+    public void adjustStats(Long propertyId, long ratingDelta, long countDelta) {
+        entityManager.createQuery(
+                        "UPDATE Property p SET p.ratingSum = p.ratingSum + :ratingDelta, " +
+                        "p.reviewCount = p.reviewCount + :countDelta WHERE p.id = :propertyId")
+                .setParameter("ratingDelta", ratingDelta)
+                .setParameter("countDelta", countDelta)
+                .setParameter("propertyId", propertyId)
+                .executeUpdate();
+    }
+
+    /**
+     * Recomputes every property's rating sum and review count from the reviews table, for
+     * rows written outside ReviewService such as data loaded by SQL scripts.
+     *
+     * @return the number of properties updated
+     */
+    @Transactional
+    public int rebuildStats() {
+        return entityManager.createQuery(
+                        "UPDATE Property p SET " +
+                        "p.ratingSum = COALESCE((SELECT SUM(r.rating) FROM Review r WHERE r.property = p), 0), " +
+                        "p.reviewCount = (SELECT COUNT(r) FROM Review r WHERE r.property = p)")
+                .executeUpdate();
     }
 
     public List<Review> findRecentReviews(int limit) {
@@ -1,6 +1,7 @@
 package com.example.property_finder.repository;
 
 import com.example.property_finder.model.User;
+import com.example.property_finder.security.AuthenticatedPrincipal;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
@@ -38,6 +39,14 @@ public class UserRepository {
         }
     }
 
+    public Optional<AuthenticatedPrincipal> findPrincipalByEmail(String email) {
+        TypedQuery<AuthenticatedPrincipal> query = entityManager.createQuery(
+                "SELECT new com.example.property_finder.security.AuthenticatedPrincipal(u.id, u.email, u.role) " +
+                "FROM User u WHERE u.email = :email", AuthenticatedPrincipal.class);
+        query.setParameter("email", email);
+        return query.getResultList().stream().findFirst();
+    }
+
     public boolean existsByEmail(String email) {
         TypedQuery<Long> query = entityManager.createQuery(
                 "SELECT COUNT(u) FROM User u WHERE u.email = :email", Long.class);
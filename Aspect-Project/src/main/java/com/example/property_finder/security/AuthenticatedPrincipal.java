@@ -0,0 +1,35 @@
+package com.example.property_finder.security;
+
+import com.example.property_finder.model.User;
+
+/**
+ * The identity and role of the user behind a request, without the rest of the User entity.
+ */
+public class AuthenticatedPrincipal {
+
+  private final Long userId;
+  private final String email;
+  private final User.UserRole role;
+
+  public AuthenticatedPrincipal(Long userId, String email, User.UserRole role) {
+    this.userId = userId;
+    this.email = email;
+    this.role = role;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public String getEmail() {
+    return email;
+  }
+
+  public User.UserRole getRole() {
+    return role;
+  }
+
+  public boolean isAdmin() {
+    return role == User.UserRole.ADMIN;
+  }
+}
@@ -1,7 +1,5 @@
 package com.example.property_finder.security;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -12,6 +10,12 @@ import java.io.IOException;
 @Component
 public class FirebaseAuthFilter implements Filter {
 
+  private final TokenCache tokenCache;
+
+  public FirebaseAuthFilter(TokenCache tokenCache) {
+    this.tokenCache = tokenCache;
+  }
+
   @Override
   public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
       throws IOException, ServletException {
@@ -27,6 +31,7 @@ public class FirebaseAuthFilter implements Filter {
     // ✅ Define which routes require authentication
     boolean isProtected = (path.startsWith("/api/properties") && !method.equals("GET")) ||
         (path.startsWith("/api/reviews") && !method.equals("GET")) ||
+        path.startsWith("/api/metrics") ||
         path.equals("/api/users/me");
 
     if (!isProtected) {
@@ -41,9 +46,9 @@ public class FirebaseAuthFilter implements Filter {
     if (authHeader != null && authHeader.startsWith("Bearer ")) {
       String idToken = authHeader.substring(7);
       try {
-        // ✅ Verify Firebase token
-        FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(idToken);
-        String email = decodedToken.getEmail();
+        // ✅ Verify Firebase token, reusing the result for tokens seen before
+        VerifiedToken verifiedToken = tokenCache.verify(idToken);
+        String email = verifiedToken.getEmail();
 
         if (email == null || email.isEmpty()) {
           System.out.println("[FirebaseAuthFilter] Token verified but email is missing");
@@ -55,12 +60,13 @@ public class FirebaseAuthFilter implements Filter {
         httpReq.setAttribute("firebaseEmail", email);
 
         System.out.println("[FirebaseAuthFilter] Token verified. Email: " + email);
-
-        chain.doFilter(request, response);
-      } catch (Exception e) {
+      } catch (InvalidTokenException e) {
         System.out.println("[FirebaseAuthFilter] Token verification failed: " + e.getMessage());
         httpRes.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid Firebase token");
+        return;
       }
+
+      chain.doFilter(request, response);
     } else {
       System.out.println("[FirebaseAuthFilter] Missing or malformed Authorization header");
       httpRes.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Authorization header missing or invalid");
@@ -0,0 +1,30 @@
+package com.example.property_finder.security;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Component
+public class FirebaseTokenVerifier implements TokenVerifier {
+
+  @Override
+  public VerifiedToken verify(String idToken) throws InvalidTokenException {
+    try {
+      FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(idToken);
+
+      Object exp = decodedToken.getClaims().get("exp");
+      if (!(exp instanceof Number)) {
+        throw new InvalidTokenException("Token has no exp claim");
+      }
+
+      return new VerifiedToken(decodedToken.getUid(), decodedToken.getEmail(),
+          Instant.ofEpochSecond(((Number) exp).longValue()));
+    } catch (FirebaseAuthException | RuntimeException e) {
+      // Including an uninitialised FirebaseApp: the request is unauthenticated either way
+      throw new InvalidTokenException(e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.property_finder.security;
+
+public class InvalidTokenException extends Exception {
+
+  public InvalidTokenException(String message) {
+    super(message);
+  }
+
+  public InvalidTokenException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.property_finder.security;
+
+import com.example.property_finder.cache.ReadThroughCache;
+import com.example.property_finder.event.UserChangedEvent;
+import com.example.property_finder.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maps authenticated emails to the user's id and role for a short TTL, so that guarded
+ * service calls do not look the user up on every request.
+ * <p>
+ * Entries are dropped when UserService saves or deletes the user. Unknown emails are not
+ * cached, so a user who signs up is recognised immediately.
+ */
+@Component
+public class PrincipalCache {
+
+  /**
+   * Request attribute holding the principal once it has been resolved for the current request.
+   */
+  public static final String REQUEST_ATTRIBUTE = "authenticatedPrincipal";
+
+  private final UserRepository userRepository;
+  private final ReadThroughCache<String, AuthenticatedPrincipal> principals;
+
+  public PrincipalCache(UserRepository userRepository,
+      @Value("${app.auth.principal-cache.enabled:true}") boolean enabled,
+      @Value("${app.auth.principal-cache.ttl-seconds:60}") long ttlSeconds,
+      @Value("${app.auth.principal-cache.max-size:10000}") int maxSize) {
+    this.userRepository = userRepository;
+    this.principals = new ReadThroughCache<>(enabled, maxSize, ttlSeconds);
+  }
+
+  public Optional<AuthenticatedPrincipal> getPrincipal(String email) {
+    return Optional.ofNullable(principals.get(email,
+        key -> userRepository.findPrincipalByEmail(key).orElse(null)));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserChanged(UserChangedEvent event) {
+    if (event.getEmail() != null) {
+      principals.invalidate(event.getEmail());
+    }
+    // The email may have changed, so also drop any entry for the same user id
+    principals.invalidateIf(principal -> principal.getUserId().equals(event.getUserId()));
+  }
+
+  public Map<String, Object> getStats() {
+    return principals.getStats();
+  }
+}
@@ -0,0 +1,133 @@
+package com.example.property_finder.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers verified ID tokens until their {@code exp} claim so that repeat requests from
+ * the same session skip signature verification.
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the token, so raw credentials are never retained,
+ * and the least recently used entry is evicted once the cache is full. Failed verifications
+ * are never cached.
+ */
+@Component
+public class TokenCache {
+
+  private final TokenVerifier tokenVerifier;
+  private final boolean enabled;
+  private final int maxSize;
+  private volatile Clock clock = Clock.systemUTC();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  // Access-ordered so that the eldest entry is the least recently used; guarded by this
+  private final LinkedHashMap<String, VerifiedToken> tokens;
+
+  public TokenCache(TokenVerifier tokenVerifier,
+      @Value("${app.auth.token-cache.enabled:true}") boolean enabled,
+      @Value("${app.auth.token-cache.max-size:10000}") int maxSize) {
+    this.tokenVerifier = tokenVerifier;
+    this.enabled = enabled;
+    this.maxSize = maxSize;
+    this.tokens = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+        if (size() > TokenCache.this.maxSize) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the cached claims of an unexpired token, verifying and caching it on a miss.
+   */
+  public VerifiedToken verify(String idToken) throws InvalidTokenException {
+    if (!enabled) {
+      return tokenVerifier.verify(idToken);
+    }
+
+    String key = hash(idToken);
+    Instant now = clock.instant();
+
+    VerifiedToken cached;
+    synchronized (this) {
+      cached = tokens.get(key);
+      if (cached != null && !now.isBefore(cached.getExpiresAt())) {
+        tokens.remove(key);
+        cached = null;
+      }
+    }
+
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+
+    misses.increment();
+    VerifiedToken verified = tokenVerifier.verify(idToken);
+    if (now.isBefore(verified.getExpiresAt())) {
+      synchronized (this) {
+        tokens.put(key, verified);
+      }
+    }
+    return verified;
+  }
+
+  /**
+   * Replaces the clock that expiry is checked against. For tests, which advance a clock of
+   * their own instead of waiting for tokens to expire.
+   */
+  void setClock(Clock clock) {
+    this.clock = clock;
+  }
+
+  public synchronized void clear() {
+    tokens.clear();
+  }
+
+  public Map<String, Object> getStats() {
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    long requests = hitCount + missCount;
+
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("enabled", enabled);
+    stats.put("size", size());
+    stats.put("maxSize", maxSize);
+    stats.put("hits", hitCount);
+    stats.put("misses", missCount);
+    stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+    stats.put("evictions", evictions.sum());
+    return stats;
+  }
+
+  public synchronized int size() {
+    return tokens.size();
+  }
+
+  private static String hash(String idToken) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(idToken.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
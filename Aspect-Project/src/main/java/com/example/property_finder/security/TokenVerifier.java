@@ -0,0 +1,10 @@
+package com.example.property_finder.security;
+
+/**
+ * Verifies bearer ID tokens. FirebaseTokenVerifier is the production implementation; tests
+ * can register their own bean with {@code @Primary} to accept locally issued tokens.
+ */
+public interface TokenVerifier {
+
+  VerifiedToken verify(String idToken) throws InvalidTokenException;
+}
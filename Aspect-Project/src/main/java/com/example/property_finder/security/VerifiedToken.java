@@ -0,0 +1,31 @@
+package com.example.property_finder.security;
+
+import java.time.Instant;
+
+/**
+ * The claims of a verified ID token that the application relies on.
+ */
+public class VerifiedToken {
+
+  private final String uid;
+  private final String email;
+  private final Instant expiresAt;
+
+  public VerifiedToken(String uid, String email, Instant expiresAt) {
+    this.uid = uid;
+    this.email = email;
+    this.expiresAt = expiresAt;
+  }
+
+  public String getUid() {
+    return uid;
+  }
+
+  public String getEmail() {
+    return email;
+  }
+
+  public Instant getExpiresAt() {
+    return expiresAt;
+  }
+}
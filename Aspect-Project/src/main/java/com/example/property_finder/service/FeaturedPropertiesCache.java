@@ -0,0 +1,172 @@
+package com.example.property_finder.service;
+
+import com.example.property_finder.event.FeaturedListingsChangedEvent;
+import com.example.property_finder.event.PropertyChangedEvent;
+import com.example.property_finder.event.ReviewChangedEvent;
+import com.example.property_finder.event.UserChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the featured list served by GET /api/search/featured as ready-to-write JSON, plain
+ * and gzipped, so a repeat request neither rebuilds the DTOs nor runs Jackson or the
+ * compressor again.
+ * <p>
+ * The snapshot is labelled with a data version that is bumped when the featured ranking
+ * changes and once a listing, review or user change has committed, since the featured DTOs
+ * show all three. A snapshot whose label is behind the version is rebuilt by the next
+ * request. The version is read before loading, so a change racing with a rebuild leaves a
+ * snapshot that is already stale rather than one that hides the change. The byte arrays
+ * are shared and must not be modified.
+ */
+@Component
+public class FeaturedPropertiesCache {
+
+    private final SearchService searchService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    private final AtomicLong dataVersion = new AtomicLong();
+    private volatile Snapshot snapshot;
+    // A lock rather than a monitor: the rebuild queries the database, and a virtual thread
+    // blocking inside synchronized would pin its carrier thread
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    public FeaturedPropertiesCache(SearchService searchService, ObjectMapper objectMapper,
+                                   @Value("${app.cache.featured.enabled:true}") boolean enabled) {
+        this.searchService = searchService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the serialized featured list for the current data version, rebuilding it first
+     * if it is out of date. Concurrent requests for a stale list wait for a single rebuild.
+     */
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (enabled && current != null && current.version == dataVersion.get()) {
+            hits.increment();
+            return current;
+        }
+
+        rebuildLock.lock();
+        try {
+            current = snapshot;
+            long version = dataVersion.get();
+            if (enabled && current != null && current.version == version) {
+                hits.increment();
+                return current;
+            }
+            current = serialize(version);
+            rebuilds.increment();
+            if (enabled) {
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onFeaturedListingsChanged(FeaturedListingsChangedEvent event) {
+        dataVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        dataVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        dataVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        dataVersion.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        long hitCount = hits.sum();
+        long rebuildCount = rebuilds.sum();
+        long requests = hitCount + rebuildCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("dataVersion", dataVersion.get());
+        stats.put("snapshotVersion", current == null ? null : current.version);
+        stats.put("jsonBytes", current == null ? 0 : current.json.length);
+        stats.put("gzipBytes", current == null ? 0 : current.gzip.length);
+        stats.put("hits", hitCount);
+        stats.put("rebuilds", rebuildCount);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        return stats;
+    }
+
+    private Snapshot serialize(long version) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(searchService.findFeaturedProperties());
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            String etag = "W/\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+            return new Snapshot(version, json, compressed.toByteArray(), etag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize featured properties", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Featured list serialized at one data version, with the weak ETag of its content.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+
+        Snapshot(long version, byte[] json, byte[] gzip, String etag) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = etag;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+    }
+}
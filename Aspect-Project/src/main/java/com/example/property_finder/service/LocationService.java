@@ -1,52 +1,87 @@
 package com.example.property_finder.service;
 
+import com.example.property_finder.event.LocationChangedEvent;
+import com.example.property_finder.index.LocationGeoIndex;
 import com.example.property_finder.model.Location;
 import com.example.property_finder.repository.LocationRepository;
-import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class LocationService {
 
+  private static final int DEFAULT_NEARBY_LIMIT = 100;
+  private static final int MAX_NEARBY_LIMIT = 1000;
+
   private final LocationRepository locationRepository;
+  private final LocationGeoIndex geoIndex;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public LocationService(LocationRepository locationRepository) {
+  public LocationService(LocationRepository locationRepository, LocationGeoIndex geoIndex,
+      ApplicationEventPublisher eventPublisher) {
     this.locationRepository = locationRepository;
+    this.geoIndex = geoIndex;
+    this.eventPublisher = eventPublisher;
   }
 
+  @Transactional(readOnly = true)
   public List<Location> getAllLocations() {
     return locationRepository.findAll();
   }
 
+  @Transactional(readOnly = true)
   public Optional<Location> getLocationById(Long id) {
     return locationRepository.findById(id);
   }
 
+  @Transactional(readOnly = true)
   public List<Location> getLocationsByType(String type) {
     return locationRepository.findByType(type);
   }
 
+  @Transactional(readOnly = true)
   public List<Location> getSubLocations(Long parentLocationId) {
     return locationRepository.findByParentLocationId(parentLocationId);
   }
 
+  @Transactional(readOnly = true)
   public List<Location> getRootLocations() {
     return locationRepository.findRootLocations();
   }
 
+  @Transactional(readOnly = true)
   public List<Location> searchLocationsByName(String name) {
     return locationRepository.findByNameContaining(name);
   }
 
+  @Transactional(readOnly = true)
   public List<Location> getNeighborhoods(String cityName) {
     return locationRepository.findNeighborhoods(cityName);
   }
 
-  public List<Location> getNearbyLocations(Double latitude, Double longitude, Double radiusInKm) {
-    return locationRepository.findNearbyLocations(latitude, longitude, radiusInKm);
+  /**
+   * Returns up to limit locations within the radius, closest first.
+   */
+  @Transactional(readOnly = true)
+  public List<Location> getNearbyLocations(Double latitude, Double longitude, Double radiusInKm,
+      Integer limit) {
+    int maxResults = limit != null
+        ? Math.max(1, Math.min(limit, MAX_NEARBY_LIMIT))
+        : DEFAULT_NEARBY_LIMIT;
+
+    if (geoIndex.isReady()) {
+      List<Long> ids = geoIndex.findNearby(latitude, longitude, radiusInKm, maxResults);
+      return inIdOrder(locationRepository.findByIdIn(ids), ids);
+    }
+
+    return locationRepository.findNearbyLocations(latitude, longitude, radiusInKm, maxResults);
   }
 
   @Transactional
@@ -64,7 +99,9 @@ public class LocationService {
     location.setLatitude(latitude);
     location.setLongitude(longitude);
 
-    return locationRepository.save(location);
+    Location savedLocation = locationRepository.save(location);
+    eventPublisher.publishEvent(LocationChangedEvent.saved(savedLocation));
+    return savedLocation;
   }
 
   @Transactional
@@ -103,6 +140,7 @@ public class LocationService {
       }
 
       Location updatedLocation = locationRepository.save(location);
+      eventPublisher.publishEvent(LocationChangedEvent.saved(updatedLocation));
       return Optional.of(updatedLocation);
     }
 
@@ -111,8 +149,16 @@ public class LocationService {
 
   @Transactional
   public boolean deleteLocation(Long id) {
-    if (locationRepository.findById(id).isPresent()) {
+    Optional<Location> locationOptional = locationRepository.findById(id);
+    if (locationOptional.isPresent()) {
+      // Sub-locations are removed by the cascade, so collect their ids first
+      List<Long> removedIds = new ArrayList<>();
+      collectSubtreeIds(locationOptional.get(), removedIds);
+
       locationRepository.deleteById(id);
+      for (Long removedId : removedIds) {
+        eventPublisher.publishEvent(LocationChangedEvent.deleted(removedId));
+      }
       return true;
     }
     return false;
@@ -133,13 +179,37 @@ public class LocationService {
       }
 
       location.setParentLocation(newParent);
-      locationRepository.save(location);
+      Location movedLocation = locationRepository.save(location);
+      eventPublisher.publishEvent(LocationChangedEvent.saved(movedLocation));
       return true;
     }
 
     return false;
   }
 
+  private void collectSubtreeIds(Location location, List<Long> ids) {
+    ids.add(location.getId());
+    for (Location subLocation : location.getSubLocations()) {
+      collectSubtreeIds(subLocation, ids);
+    }
+  }
+
+  private List<Location> inIdOrder(List<Location> locations, List<Long> ids) {
+    Map<Long, Location> byId = new HashMap<>();
+    for (Location location : locations) {
+      byId.put(location.getId(), location);
+    }
+
+    List<Location> ordered = new ArrayList<>(locations.size());
+    for (Long id : ids) {
+      Location location = byId.get(id);
+      if (location != null) {
+        ordered.add(location);
+      }
+    }
+    return ordered;
+  }
+
   // Helper method to check if potentialAncestor is an ancestor of location
   private boolean isAncestor(Location location, Location potentialAncestor) {
     if (location == null || potentialAncestor == null) {
@@ -0,0 +1,121 @@
+package com.example.property_finder.service;
+
+import com.example.property_finder.cache.ReadThroughCache;
+import com.example.property_finder.dto.PropertyDTO;
+import com.example.property_finder.dto.PropertyVersionDTO;
+import com.example.property_finder.event.PropertyChangedEvent;
+import com.example.property_finder.event.ReviewChangedEvent;
+import com.example.property_finder.event.UserChangedEvent;
+import com.example.property_finder.repository.PropertyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through caches of the listing DTOs served by GET /api/properties/{id}, GET
+ * /api/properties and GET /api/properties/byOwner/{ownerId}, and of their versions, from
+ * which the conditional GET headers are derived.
+ * <p>
+ * A listing change drops its detail entry and every cached list once the change has
+ * committed. Review changes do the same, since the DTOs carry the rating, and user changes
+ * drop everything because the DTOs carry owner names. Versions are dropped after the DTOs,
+ * so a reader never pairs a new version with an old body. The cached DTOs and lists are
+ * shared between requests and must not be modified.
+ */
+@Component
+public class PropertyCache {
+
+    private static final String ALL_KEY = "all";
+    private static final String OWNER_KEY_PREFIX = "owner:";
+
+    private final PropertyRepository propertyRepository;
+    private final ReadThroughCache<Long, PropertyDTO> details;
+    private final ReadThroughCache<String, List<PropertyDTO>> lists;
+    private final ReadThroughCache<Long, PropertyVersionDTO> detailVersions;
+    private final ReadThroughCache<String, PropertyVersionDTO> listVersions;
+
+    public PropertyCache(PropertyRepository propertyRepository,
+                         @Value("${app.cache.properties.enabled:true}") boolean enabled,
+                         @Value("${app.cache.properties.ttl-seconds:300}") long ttlSeconds,
+                         @Value("${app.cache.properties.max-size:10000}") int maxSize,
+                         @Value("${app.cache.properties.max-lists:1000}") int maxLists) {
+        this.propertyRepository = propertyRepository;
+        this.details = new ReadThroughCache<>(enabled, maxSize, ttlSeconds);
+        this.lists = new ReadThroughCache<>(enabled, maxLists, ttlSeconds);
+        this.detailVersions = new ReadThroughCache<>(enabled, maxSize, ttlSeconds);
+        this.listVersions = new ReadThroughCache<>(enabled, maxLists, ttlSeconds);
+    }
+
+    public Optional<PropertyDTO> getPropertyDTO(Long id) {
+        return Optional.ofNullable(details.get(id, key -> propertyRepository.findDTOById(key).orElse(null)));
+    }
+
+    public List<PropertyDTO> getAllPropertyDTOs() {
+        return lists.get(ALL_KEY, key -> List.copyOf(propertyRepository.findAllDTOs()));
+    }
+
+    public List<PropertyDTO> getPropertyDTOsByOwner(Long ownerId) {
+        return lists.get(OWNER_KEY_PREFIX + ownerId,
+                key -> List.copyOf(propertyRepository.findDTOsByOwnerId(ownerId)));
+    }
+
+    public Optional<PropertyVersionDTO> getPropertyVersion(Long id) {
+        return Optional.ofNullable(detailVersions.get(id,
+                key -> propertyRepository.findVersionById(key).orElse(null)));
+    }
+
+    public PropertyVersionDTO getAllPropertiesVersion() {
+        return listVersions.get(ALL_KEY, key -> propertyRepository.findVersion());
+    }
+
+    public PropertyVersionDTO getOwnerPropertiesVersion(Long ownerId) {
+        return listVersions.get(OWNER_KEY_PREFIX + ownerId,
+                key -> propertyRepository.findVersionByOwnerId(ownerId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        invalidate(event.getPropertyId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        invalidate(event.getPropertyId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(null);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("details", details.getStats());
+        stats.put("lists", lists.getStats());
+        stats.put("detailVersions", detailVersions.getStats());
+        stats.put("listVersions", listVersions.getStats());
+        return stats;
+    }
+
+    /**
+     * Drops one listing and every list, or everything when the id is null. The bodies go
+     * first: a version read in between still matches the body that replaces them.
+     */
+    private void invalidate(Long propertyId) {
+        if (propertyId == null) {
+            details.invalidateAll();
+            lists.invalidateAll();
+            detailVersions.invalidateAll();
+        } else {
+            details.invalidate(propertyId);
+            lists.invalidateAll();
+            detailVersions.invalidate(propertyId);
+        }
+        listVersions.invalidateAll();
+    }
+}
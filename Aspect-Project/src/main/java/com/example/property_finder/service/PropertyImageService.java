@@ -5,6 +5,7 @@ import com.example.property_finder.model.PropertyImage;
 import com.example.property_finder.repository.PropertyImageRepository;
 import com.example.property_finder.repository.PropertyRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,11 +16,14 @@ public class PropertyImageService {
 
     private final PropertyImageRepository propertyImageRepository;
     private final PropertyRepository propertyRepository;
+    private final int batchSize;
 
     public PropertyImageService(PropertyImageRepository propertyImageRepository,
-                                PropertyRepository propertyRepository) {
+                                PropertyRepository propertyRepository,
+                                @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
         this.propertyImageRepository = propertyImageRepository;
         this.propertyRepository = propertyRepository;
+        this.batchSize = batchSize;
     }
 
     public List<PropertyImage> getAllImages() {
@@ -68,6 +72,38 @@ public class PropertyImageService {
         return Optional.empty();
     }
 
+    /**
+     * Adds many images to a property in JDBC batches. If any of them is marked primary, the
+     * property's existing primary image is unset with a single update and only the first new
+     * primary image keeps the flag.
+     */
+    @Transactional
+    public Optional<List<PropertyImage>> addImages(Long propertyId, List<PropertyImage> images) {
+        Optional<Property> propertyOptional = propertyRepository.findById(propertyId);
+
+        if (propertyOptional.isPresent()) {
+            Property property = propertyOptional.get();
+
+            boolean hasPrimary = false;
+            for (PropertyImage image : images) {
+                image.setProperty(property);
+                if (Boolean.TRUE.equals(image.getIsPrimary())) {
+                    image.setIsPrimary(!hasPrimary);
+                    hasPrimary = true;
+                } else {
+                    image.setIsPrimary(false);
+                }
+            }
+
+            if (hasPrimary) {
+                propertyImageRepository.unsetPrimaryImages(propertyId);
+            }
+            return Optional.of(propertyImageRepository.persistAll(images, batchSize));
+        }
+
+        return Optional.empty();
+    }
+
     @Transactional
     public Optional<PropertyImage> updateImage(Long id, String imageUrl, String description, Boolean isPrimary) {
         Optional<PropertyImage> imageOptional = propertyImageRepository.findById(id);
@@ -0,0 +1,398 @@
+package com.example.property_finder.service;
+
+import com.example.property_finder.dto.PropertyDTO;
+import com.example.property_finder.dto.PropertyImportJobDTO;
+import com.example.property_finder.exception.ValidationException;
+import com.example.property_finder.model.Property;
+import com.example.property_finder.validation.ValidatorRegistry;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports listings in bulk from a JSON array of {@link PropertyDTO} objects or from CSV with
+ * a header row naming the same fields.
+ * <p>
+ * The request thread parses the body as it streams in and hands fixed-size chunks of rows
+ * to a bounded worker pool. When the pool's queue is full the reader waits, so memory use
+ * does not depend on the upload size. Each chunk is validated row by row and the valid rows
+ * are written in one transaction through {@link PropertyService#createProperties}; if that
+ * transaction fails, the chunk's rows are retried one at a time so that only the offending
+ * rows are reported. Progress and per-row errors are kept on the job, looked up by its id.
+ */
+@Service
+public class PropertyImportService {
+
+    public enum Format {
+        JSON, CSV
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyImportService.class);
+
+    private final PropertyService propertyService;
+    private final ValidatorRegistry validatorRegistry;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final Duration jobRetention;
+    private final ThreadPoolExecutor workers;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public PropertyImportService(PropertyService propertyService, ValidatorRegistry validatorRegistry,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.import.chunk-size:500}") int chunkSize,
+                                 @Value("${app.import.worker-threads:4}") int workerThreads,
+                                 @Value("${app.import.queue-capacity:8}") int queueCapacity,
+                                 @Value("${app.import.max-errors:1000}") int maxErrors,
+                                 @Value("${app.import.job-retention-minutes:60}") long jobRetentionMinutes,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.propertyService = propertyService;
+        this.validatorRegistry = validatorRegistry;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.jobRetention = Duration.ofMinutes(jobRetentionMinutes);
+
+        // Workers spend most of their time in JDBC, so they follow the virtual thread setting;
+        // the pool size still bounds how many connections an import holds at once
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("property-import-", 1).factory()
+                : Thread.ofPlatform().name("property-import-", 1).daemon(true).factory();
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory,
+                (task, executor) -> {
+                    // Block the reading thread until a worker frees a slot
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("Import workers are shut down");
+                    }
+                    try {
+                        executor.getQueue().put(task);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for an import worker", e);
+                    }
+                });
+    }
+
+    /**
+     * Reads the whole input, queueing its rows for import, and returns the job. Rows may
+     * still be being written when this returns; poll {@link #getJob} for the outcome.
+     */
+    public PropertyImportJobDTO startImport(InputStream input, Format format, Long ownerId) {
+        evictExpiredJobs();
+
+        ImportJob job = new ImportJob(ownerId);
+        jobs.put(job.id, job);
+
+        try {
+            if (format == Format.CSV) {
+                readCsv(job, input);
+            } else {
+                readJson(job, input);
+            }
+        } catch (IOException | ValidationException e) {
+            job.failure = "Stopped reading at row " + job.rowsRead.get() + ": " + e.getMessage();
+            logger.warn("Property import {} {}", job.id, job.failure);
+        } finally {
+            job.inputComplete = true;
+            job.finishIfDone();
+        }
+
+        return job.toDTO();
+    }
+
+    public Optional<PropertyImportJobDTO> getJob(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        return job == null ? Optional.empty() : Optional.of(job.toDTO());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void readJson(ImportJob job, InputStream input) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("Expected a JSON array of properties");
+            }
+
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        throw new ValidationException("Unexpected end of JSON input");
+                    }
+                    long rowNumber = job.rowsRead.incrementAndGet();
+
+                    // Read each element as a tree first so a bad value only fails its own row
+                    JsonNode node = parser.readValueAsTree();
+                    if (node == null || !node.isObject()) {
+                        job.rowFailed(rowNumber, "Expected a JSON object");
+                        continue;
+                    }
+                    try {
+                        chunk.add(new Row(rowNumber, toProperty(objectMapper.treeToValue(node, PropertyDTO.class))));
+                    } catch (JsonProcessingException e) {
+                        job.rowFailed(rowNumber, "Invalid property: " + e.getOriginalMessage());
+                        continue;
+                    }
+
+                    if (chunk.size() == chunkSize) {
+                        submit(job, chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+            } finally {
+                // Rows read before a parse error are still imported
+                submit(job, chunk);
+            }
+        }
+    }
+
+    private void readCsv(ImportJob job, InputStream input) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new ValidationException("CSV input has no header row");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        try {
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                long rowNumber = job.rowsRead.incrementAndGet();
+                try {
+                    chunk.add(new Row(rowNumber, toProperty(toPropertyDTO(columns, record))));
+                } catch (IllegalArgumentException e) {
+                    job.rowFailed(rowNumber, e.getMessage());
+                    continue;
+                }
+
+                if (chunk.size() == chunkSize) {
+                    submit(job, chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        } finally {
+            submit(job, chunk);
+        }
+    }
+
+    private void submit(ImportJob job, List<Row> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        job.pendingChunks.incrementAndGet();
+        try {
+            workers.execute(() -> importChunk(job, chunk));
+        } catch (RejectedExecutionException e) {
+            for (Row row : chunk) {
+                job.rowFailed(row.number, "Not imported: " + e.getMessage());
+            }
+            job.chunkDone();
+        }
+    }
+
+    private void importChunk(ImportJob job, List<Row> chunk) {
+        try {
+            List<Row> valid = new ArrayList<>(chunk.size());
+            for (Row row : chunk) {
+                try {
+                    validatorRegistry.validate(row.property);
+                    valid.add(row);
+                } catch (ValidationException e) {
+                    job.rowFailed(row.number, e.getMessage());
+                }
+            }
+            if (!valid.isEmpty()) {
+                persist(job, valid);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Property import {} failed to process a chunk", job.id, e);
+        } finally {
+            job.chunkDone();
+        }
+    }
+
+    private void persist(ImportJob job, List<Row> rows) {
+        List<Property> properties = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            properties.add(row.property);
+        }
+
+        try {
+            propertyService.createProperties(properties, job.ownerId);
+            job.rowsImported.addAndGet(rows.size());
+        } catch (RuntimeException e) {
+            if (rows.size() == 1) {
+                job.rowFailed(rows.get(0).number, "Not imported: " + rootMessage(e));
+                return;
+            }
+            // Find the offending rows; the others still go in, one transaction each. The
+            // rolled-back persist left sequence ids on the entities, so they start over as new
+            for (Row row : rows) {
+                row.property.setId(null);
+                persist(job, List.of(row));
+            }
+        }
+    }
+
+    private void evictExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static Property toProperty(PropertyDTO dto) {
+        // Imports always create listings; ids and owners in the input are ignored
+        return new Property(null, dto.getTitle(), dto.getDescription(), dto.getPrice(), dto.getLocation(),
+                dto.getBedrooms(), dto.getBathrooms(), dto.getArea(), dto.getPropertyType(),
+                dto.getListingType(), null);
+    }
+
+    private static PropertyDTO toPropertyDTO(Map<String, Integer> columns, List<String> record) {
+        PropertyDTO dto = new PropertyDTO();
+        dto.setTitle(column(columns, record, "title"));
+        dto.setDescription(column(columns, record, "description"));
+        dto.setLocation(column(columns, record, "location"));
+        dto.setPropertyType(column(columns, record, "propertytype"));
+        dto.setListingType(column(columns, record, "listingtype"));
+
+        String price = column(columns, record, "price");
+        String bedrooms = column(columns, record, "bedrooms");
+        String bathrooms = column(columns, record, "bathrooms");
+        String area = column(columns, record, "area");
+        try {
+            dto.setPrice(price == null ? null : new BigDecimal(price));
+            dto.setBedrooms(bedrooms == null ? null : Integer.valueOf(bedrooms));
+            dto.setBathrooms(bathrooms == null ? null : Integer.valueOf(bathrooms));
+            dto.setArea(area == null ? null : Double.valueOf(area));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number in price, bedrooms, bathrooms or area");
+        }
+        return dto;
+    }
+
+    private static String column(Map<String, Integer> columns, List<String> record, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private record Row(long number, Property property) {
+    }
+
+    private final class ImportJob {
+        final String id = UUID.randomUUID().toString();
+        final Long ownerId;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong rowsImported = new AtomicLong();
+        final AtomicLong rowsFailed = new AtomicLong();
+        final AtomicInteger pendingChunks = new AtomicInteger();
+        // Guarded by itself
+        final List<PropertyImportJobDTO.RowError> errors = new ArrayList<>();
+        volatile boolean inputComplete;
+        volatile String failure;
+        volatile LocalDateTime finishedAt;
+
+        ImportJob(Long ownerId) {
+            this.ownerId = ownerId;
+        }
+
+        void rowFailed(long rowNumber, String message) {
+            rowsFailed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new PropertyImportJobDTO.RowError(rowNumber, message));
+                }
+            }
+        }
+
+        void chunkDone() {
+            pendingChunks.decrementAndGet();
+            finishIfDone();
+        }
+
+        synchronized void finishIfDone() {
+            if (inputComplete && pendingChunks.get() == 0 && finishedAt == null) {
+                finishedAt = LocalDateTime.now();
+                logger.info("Property import {} finished: {} rows read, {} imported, {} failed",
+                        id, rowsRead.get(), rowsImported.get(), rowsFailed.get());
+            }
+        }
+
+        PropertyImportJobDTO toDTO() {
+            PropertyImportJobDTO dto = new PropertyImportJobDTO();
+            dto.setJobId(id);
+            LocalDateTime finished = finishedAt;
+            if (finished == null) {
+                dto.setStatus(PropertyImportJobDTO.Status.RUNNING);
+            } else {
+                dto.setStatus(failure != null ? PropertyImportJobDTO.Status.FAILED : PropertyImportJobDTO.Status.COMPLETED);
+            }
+            dto.setRowsRead(rowsRead.get());
+            dto.setRowsImported(rowsImported.get());
+            dto.setRowsFailed(rowsFailed.get());
+            dto.setMessage(failure);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finished);
+            synchronized (errors) {
+                List<PropertyImportJobDTO.RowError> rowErrors = new ArrayList<>(errors);
+                rowErrors.sort((a, b) -> Long.compare(a.getRow(), b.getRow()));
+                dto.setErrors(rowErrors);
+            }
+            return dto;
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.property_finder.service;
 
+import com.example.property_finder.dto.PropertyDTO;
+import com.example.property_finder.dto.PropertySearchDTO;
+import com.example.property_finder.dto.PropertyVersionDTO;
+import com.example.property_finder.event.PropertyChangedEvent;
 import com.example.property_finder.model.Property;
 import com.example.property_finder.model.User;
 import com.example.property_finder.repository.PropertyRepository;
 import com.example.property_finder.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.example.property_finder.validation.ValidatorRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -16,44 +23,93 @@ public class PropertyService {
 
     private final PropertyRepository propertyRepository;
     private final UserRepository userRepository;
-
-    public PropertyService(PropertyRepository propertyRepository, UserRepository userRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final ValidatorRegistry validatorRegistry;
+    private final PropertyCache propertyCache;
+    private final int batchSize;
+
+    public PropertyService(PropertyRepository propertyRepository, UserRepository userRepository,
+                           ApplicationEventPublisher eventPublisher, ValidatorRegistry validatorRegistry,
+                           PropertyCache propertyCache,
+                           @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
         this.propertyRepository = propertyRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.validatorRegistry = validatorRegistry;
+        this.propertyCache = propertyCache;
+        this.batchSize = batchSize;
     }
 
+    @Transactional(readOnly = true)
     public List<Property> getAllProperties() {
         return propertyRepository.findAll();
     }
 
+    public List<PropertyDTO> getAllPropertyDTOs() {
+        return propertyCache.getAllPropertyDTOs();
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Property> getPropertyById(Long id) {
         return propertyRepository.findById(id);
     }
 
+    public Optional<PropertyDTO> getPropertyDTOById(Long id) {
+        return propertyCache.getPropertyDTO(id);
+    }
+
+    public Optional<PropertyVersionDTO> getPropertyVersion(Long id) {
+        return propertyCache.getPropertyVersion(id);
+    }
+
+    public PropertyVersionDTO getAllPropertiesVersion() {
+        return propertyCache.getAllPropertiesVersion();
+    }
+
+    public PropertyVersionDTO getOwnerPropertiesVersion(Long ownerId) {
+        return propertyCache.getOwnerPropertiesVersion(ownerId);
+    }
+
+    @Transactional(readOnly = true)
     public List<Property> getPropertiesByLocation(String location) {
         return propertyRepository.findByLocation(location);
     }
 
+    @Transactional(readOnly = true)
     public List<Property> getPropertiesByType(String propertyType) {
         return propertyRepository.findByPropertyType(propertyType);
     }
 
+    @Transactional(readOnly = true)
     public List<Property> getPropertiesByListingType(String listingType) {
         return propertyRepository.findByListingType(listingType);
     }
 
+    @Transactional(readOnly = true)
     public List<Property> getPropertiesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
         return propertyRepository.findByPriceBetween(minPrice, maxPrice);
     }
 
+    @Transactional(readOnly = true)
     public List<Property> getPropertiesByMinBedrooms(Integer bedrooms) {
         return propertyRepository.findByBedroomsGreaterThanEqual(bedrooms);
     }
 
+    // Not read-only: ownership checks guard writes, so they read the primary
+    public Optional<Long> getPropertyOwnerId(Long id) {
+        return propertyRepository.findOwnerIdById(id);
+    }
+
+    @Transactional(readOnly = true)
     public List<Property> getPropertiesByOwner(Long ownerId) {
         return propertyRepository.findByOwnerId(ownerId);
     }
 
+    public List<PropertyDTO> getPropertyDTOsByOwner(Long ownerId) {
+        return propertyCache.getPropertyDTOsByOwner(ownerId);
+    }
+
+    @Transactional(readOnly = true)
     public List<Property> searchProperties(
             String location,
             BigDecimal minPrice,
@@ -66,6 +122,26 @@ public class PropertyService {
                 location, minPrice, maxPrice, bedrooms, propertyType, listingType);
     }
 
+    @Transactional(readOnly = true)
+    public List<PropertyDTO> searchPropertyDTOs(
+            String location,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer bedrooms,
+            String propertyType,
+            String listingType) {
+
+        PropertySearchDTO searchDTO = new PropertySearchDTO();
+        searchDTO.setLocation(location);
+        searchDTO.setMinPrice(minPrice);
+        searchDTO.setMaxPrice(maxPrice);
+        searchDTO.setMinBedrooms(bedrooms);
+        searchDTO.setPropertyType(propertyType);
+        searchDTO.setListingType(listingType);
+
+        return propertyRepository.advancedSearchDTOs(searchDTO);
+    }
+
     @Transactional
     public Property saveProperty(Property property, Long ownerId) {
         if (ownerId != null) {
@@ -73,7 +149,32 @@ public class PropertyService {
             owner.ifPresent(property::setOwner);
         }
 
-        return propertyRepository.save(property);
+        Property savedProperty = propertyRepository.save(property);
+        eventPublisher.publishEvent(PropertyChangedEvent.saved(savedProperty));
+        return savedProperty;
+    }
+
+    /**
+     * Creates many listings for one owner in JDBC batches. Every listing is validated before
+     * anything is written, with the same rules as saveProperty. The returned listings carry
+     * their generated ids but are detached.
+     */
+    @Transactional
+    public List<Property> createProperties(List<Property> properties, Long ownerId) {
+        for (Property property : properties) {
+            validatorRegistry.validate(property);
+        }
+
+        if (ownerId != null) {
+            Optional<User> owner = userRepository.findById(ownerId);
+            owner.ifPresent(user -> properties.forEach(property -> property.setOwner(user)));
+        }
+
+        List<Property> createdProperties = propertyRepository.persistAll(properties, batchSize);
+        for (Property property : createdProperties) {
+            eventPublisher.publishEvent(PropertyChangedEvent.saved(property));
+        }
+        return createdProperties;
     }
 
     @Transactional
@@ -97,6 +198,7 @@ public class PropertyService {
             // Don't update owner here to prevent ownership changes
 
             Property updatedProperty = propertyRepository.save(property);
+            eventPublisher.publishEvent(PropertyChangedEvent.saved(updatedProperty));
             return Optional.of(updatedProperty);
         }
 
@@ -109,6 +211,7 @@ public class PropertyService {
 
         if (property.isPresent()) {
             propertyRepository.deleteById(id);
+            eventPublisher.publishEvent(PropertyChangedEvent.deleted(id));
             return true;
         }
 
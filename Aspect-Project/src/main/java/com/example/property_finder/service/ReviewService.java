@@ -1,60 +1,125 @@
 package com.example.property_finder.service;
 
+import com.example.property_finder.dto.ReviewOwnershipDTO;
+import com.example.property_finder.dto.ReviewStatsDTO;
+import com.example.property_finder.event.ReviewChangedEvent;
+import com.example.property_finder.exception.ValidationException;
 import com.example.property_finder.model.Property;
 import com.example.property_finder.model.Review;
 import com.example.property_finder.model.User;
 import com.example.property_finder.repository.PropertyRepository;
 import com.example.property_finder.repository.ReviewRepository;
 import com.example.property_finder.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class ReviewService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ReviewService.class);
+
+    // Enough for any listing page; larger lookups should page through the ids
+    private static final int MAX_STATS_BATCH_SIZE = 500;
+
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final PropertyRepository propertyRepository;
+    private final ReviewStatsCache reviewStatsCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean rebuildStatsOnStartup;
 
     public ReviewService(ReviewRepository reviewRepository,
                          UserRepository userRepository,
-                         PropertyRepository propertyRepository) {
+                         PropertyRepository propertyRepository,
+                         ReviewStatsCache reviewStatsCache,
+                         ApplicationEventPublisher eventPublisher,
+                         @Value("${app.reviews.rebuild-stats-on-startup:false}") boolean rebuildStatsOnStartup) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
         this.propertyRepository = propertyRepository;
+        this.reviewStatsCache = reviewStatsCache;
+        this.eventPublisher = eventPublisher;
+        this.rebuildStatsOnStartup = rebuildStatsOnStartup;
     }
 
+    /**
+     * Recomputes the review aggregates kept on each property when enabled, for databases
+     * whose reviews were written before the aggregates existed or by SQL scripts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildStatsOnStartup() {
+        if (rebuildStatsOnStartup) {
+            int updated = reviewRepository.rebuildStats();
+            eventPublisher.publishEvent(new ReviewChangedEvent(null, null));
+            logger.info("Rebuilt review stats for {} properties", updated);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<Review> getAllReviews() {
         return reviewRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Review> getReviewById(Long id) {
         return reviewRepository.findById(id);
     }
 
+    // Not read-only: ownership checks guard writes, so they read the primary
+    public Optional<Long> getReviewAuthorId(Long reviewId) {
+        return reviewRepository.findAuthorIdById(reviewId);
+    }
+
+    public Optional<ReviewOwnershipDTO> getReviewOwnership(Long reviewId) {
+        return reviewRepository.findOwnershipById(reviewId);
+    }
+
+    @Transactional(readOnly = true)
     public List<Review> getReviewsByPropertyId(Long propertyId) {
         return reviewRepository.findByPropertyId(propertyId);
     }
 
+    @Transactional(readOnly = true)
     public List<Review> getReviewsByUserId(Long userId) {
         return reviewRepository.findByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Review> getReviewByUserAndProperty(Long userId, Long propertyId) {
         return reviewRepository.findByUserIdAndPropertyId(userId, propertyId);
     }
 
-    public Double getAverageRating(Long propertyId) {
-        return reviewRepository.getAverageRatingByPropertyId(propertyId);
+    /**
+     * Rating sum and review count of a property in one read; empty if the property does
+     * not exist.
+     */
+    public Optional<ReviewStatsDTO> getReviewStats(Long propertyId) {
+        return reviewStatsCache.get(propertyId);
     }
 
-    public Long getReviewCount(Long propertyId) {
-        return reviewRepository.getReviewCountByPropertyId(propertyId);
+    /**
+     * Rating sums and review counts of many properties, in the order the ids were given.
+     * Cached entries are reused and the rest are read in a single query; ids of properties
+     * that do not exist are left out.
+     */
+    public List<ReviewStatsDTO> getReviewStatsByPropertyIds(List<Long> propertyIds) {
+        if (propertyIds.size() > MAX_STATS_BATCH_SIZE) {
+            throw new ValidationException("At most " + MAX_STATS_BATCH_SIZE + " property ids can be looked up at once");
+        }
+        return new ArrayList<>(reviewStatsCache.getAll(propertyIds).values());
     }
 
+    @Transactional(readOnly = true)
     public List<Review> getRecentReviews(int limit) {
         return reviewRepository.findRecentReviews(limit);
     }
@@ -80,6 +145,8 @@ public class ReviewService {
 
             Review review = new Review(property, user, rating, comment);
             Review savedReview = reviewRepository.save(review);
+            reviewRepository.adjustStats(propertyId, rating, 1);
+            eventPublisher.publishEvent(new ReviewChangedEvent(savedReview.getId(), propertyId));
             return Optional.of(savedReview);
         }
 
@@ -98,6 +165,11 @@ public class ReviewService {
                 if (rating < 1 || rating > 5) {
                     return Optional.empty();
                 }
+                int ratingDelta = rating - review.getRating();
+                if (ratingDelta != 0) {
+                    reviewRepository.adjustStats(review.getProperty().getId(), ratingDelta, 0);
+                    eventPublisher.publishEvent(new ReviewChangedEvent(reviewId, review.getProperty().getId()));
+                }
                 review.setRating(rating);
             }
 
@@ -114,8 +186,13 @@ public class ReviewService {
 
     @Transactional
     public boolean deleteReview(Long id) {
-        if (reviewRepository.findById(id).isPresent()) {
+        Optional<Review> reviewOptional = reviewRepository.findById(id);
+
+        if (reviewOptional.isPresent()) {
+            Review review = reviewOptional.get();
+            reviewRepository.adjustStats(review.getProperty().getId(), -review.getRating(), -1);
             reviewRepository.deleteById(id);
+            eventPublisher.publishEvent(new ReviewChangedEvent(id, review.getProperty().getId()));
             return true;
         }
         return false;
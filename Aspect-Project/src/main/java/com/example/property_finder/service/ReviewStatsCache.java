@@ -0,0 +1,74 @@
+package com.example.property_finder.service;
+
+import com.example.property_finder.cache.ReadThroughCache;
+import com.example.property_finder.dto.ReviewStatsDTO;
+import com.example.property_finder.event.PropertyChangedEvent;
+import com.example.property_finder.event.ReviewChangedEvent;
+import com.example.property_finder.repository.ReviewRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the rating aggregates of each property, so that listing pages asking for the
+ * ratings of many properties at once only read the ones they have not seen recently, in a
+ * single query.
+ * <p>
+ * Entries are dropped when ReviewService writes a review of the property or the property is
+ * deleted; the TTL only bounds staleness from writes made outside the application. Unknown
+ * property ids are not cached.
+ */
+@Component
+public class ReviewStatsCache {
+
+    private final ReviewRepository reviewRepository;
+    private final ReadThroughCache<Long, ReviewStatsDTO> stats;
+
+    public ReviewStatsCache(ReviewRepository reviewRepository,
+                            @Value("${app.reviews.stats-cache.enabled:true}") boolean enabled,
+                            @Value("${app.reviews.stats-cache.ttl-seconds:300}") long ttlSeconds,
+                            @Value("${app.reviews.stats-cache.max-size:50000}") int maxSize) {
+        this.reviewRepository = reviewRepository;
+        this.stats = new ReadThroughCache<>(enabled, maxSize, ttlSeconds);
+    }
+
+    public Optional<ReviewStatsDTO> get(Long propertyId) {
+        return Optional.ofNullable(getAll(List.of(propertyId)).get(propertyId));
+    }
+
+    /**
+     * Returns the aggregates of the given properties keyed by id, in the order the ids were
+     * given. Ids of properties that do not exist are left out.
+     */
+    public Map<Long, ReviewStatsDTO> getAll(Collection<Long> propertyIds) {
+        return stats.getAll(propertyIds, missing -> reviewRepository.findStatsByPropertyIds(missing).stream()
+                .collect(Collectors.toMap(ReviewStatsDTO::getPropertyId, Function.identity())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (event.getPropertyId() == null) {
+            stats.invalidateAll();
+        } else {
+            stats.invalidate(event.getPropertyId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.getChangeType() == PropertyChangedEvent.ChangeType.DELETED) {
+            stats.invalidate(event.getPropertyId());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return stats.getStats();
+    }
+}
@@ -1,49 +1,207 @@
 package com.example.property_finder.service;
 
+import com.example.property_finder.dto.CursorPageDTO;
+import com.example.property_finder.dto.PropertyDTO;
 import com.example.property_finder.dto.PropertySearchDTO;
+import com.example.property_finder.dto.PropertySortField;
+import com.example.property_finder.dto.SearchCursor;
+import com.example.property_finder.exception.ValidationException;
+import com.example.property_finder.index.FeaturedRanking;
+import com.example.property_finder.index.PropertySearchIndex;
 import com.example.property_finder.model.Property;
 import com.example.property_finder.repository.PropertyRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
 public class SearchService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_SIMILAR_LIMIT = 10;
+    private static final int EXPORT_BATCH_SIZE = 500;
+
     private final PropertyRepository propertyRepository;
+    private final PropertySearchIndex searchIndex;
+    private final FeaturedRanking featuredRanking;
+    private final double maxFetchFraction;
 
-    public SearchService(PropertyRepository propertyRepository) {
+    public SearchService(PropertyRepository propertyRepository, PropertySearchIndex searchIndex,
+                         FeaturedRanking featuredRanking,
+                         @Value("${app.search.index.max-fetch-fraction:0.002}") double maxFetchFraction) {
         this.propertyRepository = propertyRepository;
+        this.searchIndex = searchIndex;
+        this.featuredRanking = featuredRanking;
+        this.maxFetchFraction = maxFetchFraction;
     }
 
+    @Transactional(readOnly = true)
     public List<Property> searchProperties(PropertySearchDTO searchDTO) {
+        // Answer from the in-memory index and only load the matching rows
+        if (searchIndex.isReady()) {
+            List<Long> ids = searchIndex.search(searchDTO);
+            if (isSelective(ids)) {
+                return propertyRepository.findByIdIn(ids);
+            }
+        }
         return propertyRepository.advancedSearch(searchDTO);
     }
 
-    // You could add more specialized search methods here in the future
-    public List<Property> findFeaturedProperties() {
-        // Logic to find featured properties (perhaps the newest listings or premium listings)
-        // For simplicity, just return all properties for now
-        return propertyRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<PropertyDTO> searchPropertyDTOs(PropertySearchDTO searchDTO) {
+        if (searchIndex.isReady()) {
+            List<Long> ids = searchIndex.search(searchDTO);
+            if (isSelective(ids)) {
+                return propertyRepository.findDTOsByIdIn(ids);
+            }
+        }
+        return propertyRepository.advancedSearchDTOs(searchDTO);
+    }
+
+    // A row fetched by id costs far more than a row scanned by the query, as every id is
+    // bound as its own IN parameter, so past a small fraction of all listings the query wins
+    private boolean isSelective(List<Long> ids) {
+        return ids.size() <= maxFetchFraction * searchIndex.size();
+    }
+
+    /**
+     * Returns one page of search results ordered by the requested sort key, continuing
+     * after the cursor of the previous page if one is given.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Property> searchPropertiesPage(PropertySearchDTO searchDTO) {
+        PropertySortField sortField = PropertySortField.fromName(searchDTO.getSortBy());
+        boolean descending = isDescending(searchDTO.getSortDirection());
+        int limit = searchDTO.getLimit() != null
+                ? Math.max(1, Math.min(searchDTO.getLimit(), MAX_PAGE_SIZE))
+                : DEFAULT_PAGE_SIZE;
+        SearchCursor after = searchDTO.getCursor() != null && !searchDTO.getCursor().isEmpty()
+                ? SearchCursor.decode(searchDTO.getCursor(), sortField, descending)
+                : null;
+
+        // Fetch one extra row to learn whether another page exists
+        List<Property> rows;
+        boolean hasMore;
+        if (searchIndex.isReady()) {
+            List<Long> ids = searchIndex.searchPage(searchDTO, sortField, descending, after, limit + 1);
+            hasMore = ids.size() > limit;
+            rows = inIdOrder(propertyRepository.findByIdIn(ids.subList(0, Math.min(limit, ids.size()))),
+                    ids);
+        } else {
+            rows = propertyRepository.advancedSearchPage(searchDTO, sortField, descending, after, limit + 1);
+            hasMore = rows.size() > limit;
+            if (hasMore) {
+                rows = new ArrayList<>(rows.subList(0, limit));
+            }
+        }
+
+        String nextCursor = null;
+        if (hasMore && !rows.isEmpty()) {
+            Property last = rows.get(rows.size() - 1);
+            nextCursor = new SearchCursor(sortField.valueOf(last), last.getId()).encode(sortField, descending);
+        }
+
+        return new CursorPageDTO<>(rows, nextCursor, hasMore);
+    }
+
+    /**
+     * Streams every match to the consumer without materializing the result list.
+     */
+    @Transactional(readOnly = true)
+    public void exportProperties(PropertySearchDTO searchDTO, Consumer<Property> consumer) {
+        propertyRepository.streamAdvancedSearch(searchDTO, EXPORT_BATCH_SIZE, consumer);
+    }
+
+    /**
+     * Returns the top-ranked listings, best first. The ranking is kept in memory by
+     * FeaturedRanking; only the featured rows themselves are read. Until the first ranking,
+     * which runs in the background after startup, has completed, falls back to the newest
+     * listings.
+     */
+    @Transactional(readOnly = true)
+    public List<PropertyDTO> findFeaturedProperties() {
+        if (!featuredRanking.isReady()) {
+            return propertyRepository.findNewestDTOs(featuredRanking.getTopK());
+        }
+        return findDTOsInOrder(featuredRanking.getTopIds());
     }
 
-    public List<Property> findSimilarProperties(Long propertyId) {
-        // In a real app, this would implement logic to find similar properties
-        // For now, just get the property and find others in the same location with similar price
+    /**
+     * Returns up to limit listings most similar to the given one, nearest first, excluding
+     * the listing itself. Answered from the in-memory index; until it has loaded, falls back
+     * to listings in the same location with at least as many bedrooms.
+     */
+    @Transactional(readOnly = true)
+    public List<PropertyDTO> findSimilarProperties(Long propertyId, Integer limit) {
+        int k = limit != null ? Math.max(1, Math.min(limit, MAX_PAGE_SIZE)) : DEFAULT_SIMILAR_LIMIT;
+        if (searchIndex.isReady()) {
+            return findDTOsInOrder(searchIndex.findSimilar(propertyId, k));
+        }
+
         Property property = propertyRepository.findById(propertyId).orElse(null);
-        if (property == null) {
+        if (property == null || property.getLocation() == null || property.getBedrooms() == null) {
             return List.of();
         }
 
-        // Find properties in the same area with similar number of bedrooms
-        String location = property.getLocation();
-        Integer bedrooms = property.getBedrooms();
+        PropertySearchDTO searchDTO = new PropertySearchDTO();
+        searchDTO.setLocation(property.getLocation());
+        searchDTO.setMinBedrooms(property.getBedrooms());
+        searchDTO.setPropertyType(property.getPropertyType());
+        searchDTO.setListingType(property.getListingType());
+        return propertyRepository.advancedSearchDTOs(searchDTO).stream()
+                .filter(dto -> !propertyId.equals(dto.getId()))
+                .limit(k)
+                .toList();
+    }
 
-        if (location == null || bedrooms == null) {
-            return List.of();
+    /**
+     * Loads the DTOs of the given listings in the order of the ids, skipping deleted ones.
+     */
+    private List<PropertyDTO> findDTOsInOrder(List<Long> ids) {
+        Map<Long, PropertyDTO> byId = new HashMap<>();
+        for (PropertyDTO dto : propertyRepository.findDTOsByIdIn(ids)) {
+            byId.put(dto.getId(), dto);
         }
+        List<PropertyDTO> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            PropertyDTO dto = byId.get(id);
+            if (dto != null) {
+                ordered.add(dto);
+            }
+        }
+        return ordered;
+    }
 
-        return propertyRepository.searchProperties(location, null, null, bedrooms,
-                property.getPropertyType(), property.getListingType());
+    private boolean isDescending(String sortDirection) {
+        if (sortDirection == null || sortDirection.isEmpty() || sortDirection.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (sortDirection.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new ValidationException("Sort direction must be asc or desc");
+    }
+
+    private List<Property> inIdOrder(List<Property> properties, List<Long> ids) {
+        Map<Long, Property> byId = new HashMap<>();
+        for (Property property : properties) {
+            byId.put(property.getId(), property);
+        }
+
+        List<Property> ordered = new ArrayList<>(properties.size());
+        for (Long id : ids) {
+            Property property = byId.get(id);
+            if (property != null) {
+                ordered.add(property);
+            }
+        }
+        return ordered;
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,10 @@
 package com.example.property_finder.service;
 
+import com.example.property_finder.event.UserChangedEvent;
 import com.example.property_finder.model.User;
 import com.example.property_finder.repository.UserRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -14,10 +16,13 @@ public class UserService {
 
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+  public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+      ApplicationEventPublisher eventPublisher) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
+    this.eventPublisher = eventPublisher;
   }
 
   public List<User> getAllUsers() {
@@ -43,12 +48,15 @@ public class UserService {
       user.setPassword("FIREBASE_AUTH");
     }
 
-    return userRepository.save(user);
+    User savedUser = userRepository.save(user);
+    eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId(), savedUser.getEmail()));
+    return savedUser;
   }
 
   @Transactional
   public void deleteUser(Long id) {
     userRepository.deleteById(id);
+    eventPublisher.publishEvent(new UserChangedEvent(id, null));
   }
 
   public boolean existsByEmail(String email) {
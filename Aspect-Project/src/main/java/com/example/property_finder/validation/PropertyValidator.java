@@ -0,0 +1,53 @@
+package com.example.property_finder.validation;
+
+import com.example.property_finder.exception.ValidationException;
+import com.example.property_finder.model.Property;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+/**
+ * The rules a listing must satisfy before it is saved, registered with the
+ * {@link ValidatorRegistry} when the bean is created, so that every caller of
+ * {@link ValidatorRegistry#validate} sees them: the save advice, bulk creation and imports.
+ */
+@Component
+public class PropertyValidator {
+
+    private final Function<Property, String> title;
+    private final Function<Property, BigDecimal> price;
+    private final Function<Property, String> location;
+
+    public PropertyValidator(ValidatorRegistry validatorRegistry) {
+        // Compile the property getters once instead of reflecting on every save
+        this.title = validatorRegistry.getter(Property.class, "title", String.class);
+        this.price = validatorRegistry.getter(Property.class, "price", BigDecimal.class);
+        this.location = validatorRegistry.getter(Property.class, "location", String.class);
+
+        validatorRegistry.register(Property.class, this::validate);
+    }
+
+    public void validate(Property property) {
+        // Validate title
+        String title = this.title.apply(property);
+        if (title == null || title.trim().isEmpty()) {
+            throw new ValidationException("Property title cannot be empty");
+        }
+        if (title.length() > 100) {
+            throw new ValidationException("Property title cannot exceed 100 characters");
+        }
+
+        // Validate price
+        BigDecimal price = this.price.apply(property);
+        if (price == null || price.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new ValidationException("Property price must be greater than zero");
+        }
+
+        // Validate location
+        String location = this.location.apply(property);
+        if (location == null || location.trim().isEmpty()) {
+            throw new ValidationException("Property location cannot be empty");
+        }
+    }
+}
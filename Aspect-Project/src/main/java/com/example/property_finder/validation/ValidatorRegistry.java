@@ -0,0 +1,119 @@
+package com.example.property_finder.validation;
+
+import com.example.property_finder.exception.ValidationException;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Validators keyed by the type they check, plus compiled property getters for writing them.
+ * <p>
+ * Getters are bound once through LambdaMetafactory, so reading a property during validation
+ * is a plain interface call with no reflection or boxing of arguments. A target is checked by
+ * the validator registered for its class or nearest superclass, which also covers entity
+ * proxies; the resolution is cached per concrete class.
+ */
+@Component
+public class ValidatorRegistry {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Map<Class<?>, Map<String, Function<?, ?>>> getters = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Consumer<Object>> validators = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Consumer<Object>> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a function reading the named bean property of the given type through its
+     * public getter, generating it on first use.
+     */
+    @SuppressWarnings("unchecked")
+    public <T, V> Function<T, V> getter(Class<T> type, String property, Class<V> valueType) {
+        Function<?, ?> getter = getters
+                .computeIfAbsent(type, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(property, key -> compileGetter(type, property));
+
+        Class<?> returnType = wrap(findGetter(type, property).getReturnType());
+        if (!valueType.isAssignableFrom(returnType)) {
+            throw new IllegalArgumentException(type.getSimpleName() + "." + property + " is a "
+                    + returnType.getSimpleName() + ", not a " + valueType.getSimpleName());
+        }
+        return (Function<T, V>) getter;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> void register(Class<T> type, Consumer<? super T> validator) {
+        validators.put(type, target -> validator.accept((T) target));
+        resolved.clear();
+    }
+
+    /**
+     * Runs the validator registered for the target's type.
+     *
+     * @throws ValidationException if the target is invalid or no validator applies to it
+     */
+    public void validate(Object target) {
+        if (target == null) {
+            throw new ValidationException("Nothing to validate");
+        }
+        resolved.computeIfAbsent(target.getClass(), this::resolve).accept(target);
+    }
+
+    private Consumer<Object> resolve(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            Consumer<Object> validator = validators.get(current);
+            if (validator != null) {
+                return validator;
+            }
+        }
+        return target -> {
+            throw new ValidationException("No validator registered for " + type.getSimpleName());
+        };
+    }
+
+    private static Function<?, ?> compileGetter(Class<?> type, String property) {
+        Method method = findGetter(type, property);
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(
+                    LOOKUP,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(wrap(method.getReturnType()), type));
+            return (Function<?, ?>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to compile getter for " + type.getName() + "." + property, e);
+        }
+    }
+
+    private static Method findGetter(Class<?> type, String property) {
+        String suffix = property.substring(0, 1).toUpperCase(Locale.ROOT) + property.substring(1);
+        for (String prefix : new String[]{"get", "is"}) {
+            try {
+                Method method = type.getMethod(prefix + suffix);
+                if (!Modifier.isStatic(method.getModifiers()) && method.getReturnType() != void.class) {
+                    return method;
+                }
+            } catch (NoSuchMethodException e) {
+                // Try the next accessor naming convention
+            }
+        }
+        throw new IllegalArgumentException("No public getter for " + type.getName() + "." + property);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.property_finder.aspect;
+
+import com.example.property_finder.exception.AccessDeniedException;
+import com.example.property_finder.model.Property;
+import com.example.property_finder.model.Review;
+import com.example.property_finder.model.User;
+import com.example.property_finder.repository.PropertyRepository;
+import com.example.property_finder.repository.ReviewRepository;
+import com.example.property_finder.repository.UserRepository;
+import com.example.property_finder.security.AuthenticatedPrincipal;
+import com.example.property_finder.security.PrincipalCache;
+import com.example.property_finder.service.PropertyCache;
+import com.example.property_finder.service.PropertyService;
+import com.example.property_finder.service.ReviewService;
+import com.example.property_finder.service.ReviewStatsCache;
+import com.example.property_finder.validation.ValidatorRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that each ownership guard decides with exactly one query, whether access is
+ * granted, denied to a user who is not the owner, or denied because the target does not
+ * exist. The principal is resolved before the request reaches the guard, as
+ * FirebaseAuthFilter and PrincipalCache do, so only the ownership query is counted.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({SecurityAspect.class, PrincipalCache.class, PropertyService.class, ReviewService.class,
+        PropertyCache.class, ReviewStatsCache.class, ValidatorRegistry.class,
+        PropertyRepository.class, ReviewRepository.class, UserRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecurityAspectStatementCountTest {
+
+    private static final long MISSING_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private SecurityAspect securityAspect;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User owner;
+    private User author;
+    private User stranger;
+    private Property property;
+    private Review review;
+
+    @BeforeEach
+    void createListingWithReview() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            owner = user("owner");
+            author = user("author");
+            stranger = user("stranger");
+            property = new Property(null, "Guarded", null, BigDecimal.valueOf(1_000_000), "Maadi, Cairo",
+                    2, 1, 90.0, "Apartment", "For Sale", owner);
+            entityManager.persist(property);
+            review = new Review(property, author, 4, "Good");
+            entityManager.persist(review);
+        });
+    }
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void propertyUpdateGuardUsesOneStatement() {
+        assertGranted(owner, () -> securityAspect.checkPropertyUpdateAuthorization(null, property.getId()));
+        assertDenied(stranger, () -> securityAspect.checkPropertyUpdateAuthorization(null, property.getId()));
+        assertDenied(owner, () -> securityAspect.checkPropertyUpdateAuthorization(null, MISSING_ID));
+    }
+
+    @Test
+    void reviewUpdateGuardUsesOneStatement() {
+        assertGranted(author, () -> securityAspect.checkReviewUpdateAuthorization(review.getId()));
+        assertDenied(owner, () -> securityAspect.checkReviewUpdateAuthorization(review.getId()));
+        assertDenied(author, () -> securityAspect.checkReviewUpdateAuthorization(MISSING_ID));
+    }
+
+    @Test
+    void reviewDeleteGuardUsesOneStatement() {
+        assertGranted(author, () -> securityAspect.checkReviewDeleteAuthorization(review.getId()));
+        assertGranted(owner, () -> securityAspect.checkReviewDeleteAuthorization(review.getId()));
+        assertDenied(stranger, () -> securityAspect.checkReviewDeleteAuthorization(review.getId()));
+        assertDenied(author, () -> securityAspect.checkReviewDeleteAuthorization(MISSING_ID));
+    }
+
+    private void assertGranted(User user, Executable guard) {
+        assertEquals(1, statements(user, () -> {
+            guard.execute();
+            return null;
+        }));
+    }
+
+    private void assertDenied(User user, Executable guard) {
+        assertEquals(1, statements(user, () -> assertThrows(AccessDeniedException.class, guard)));
+    }
+
+    private long statements(User user, ThrowingCall call) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(PrincipalCache.REQUEST_ATTRIBUTE,
+                new AuthenticatedPrincipal(user.getId(), user.getEmail(), user.getRole()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        try {
+            call.run();
+        } catch (Throwable e) {
+            throw new AssertionError(e);
+        }
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User user(String name) {
+        String email = name + "-" + System.nanoTime() + "@example.com";
+        User user = new User(null, email, null, name, "User", null, User.UserRole.USER, null, null);
+        entityManager.persist(user);
+        return user;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingCall {
+        Object run() throws Throwable;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.property_finder.cache;
+
+import com.example.property_finder.config.SecondLevelCacheConfig;
+import com.example.property_finder.model.Location;
+import com.example.property_finder.repository.LocationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Races a load against an update of the same location through the read-write cache of a
+ * small region. The load reads the row before the update and only tries to cache it while
+ * the update is still uncommitted and the region has been churned well past its size, by
+ * when a soft lock kept in the evicting cache would be gone.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.cache.l2.max-size=" + LocalRegionFactoryTest.REGION_SIZE
+})
+@Import({LocationRepository.class, SecondLevelCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LocalRegionFactoryTest {
+
+    static final int REGION_SIZE = 10;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void loadThatReadBeforeAnUpdateCannotCacheTheOldRow() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(Location.class);
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+
+        Location location = locationRepository.save(new Location("Before", null, "City", null, null, null));
+        Object key = access.generateCacheKey(location.getId(), persister, sessionFactory, null);
+
+        try (SessionImplementor loader = (SessionImplementor) sessionFactory.openSession();
+             SessionImplementor updater = (SessionImplementor) sessionFactory.openSession()) {
+            // The load starts, and reads the row, before the update
+            loader.beginTransaction();
+
+            // The update is flushed, which soft-locks the entry, but not yet committed
+            updater.beginTransaction();
+            updater.find(Location.class, location.getId()).setName("After");
+            updater.flush();
+
+            churn();
+
+            assertFalse(access.putFromLoad(loader, key, "row as read before the update", null));
+            try (SessionImplementor reader = (SessionImplementor) sessionFactory.openSession()) {
+                assertNull(access.get(reader, key));
+            }
+
+            updater.getTransaction().commit();
+            loader.getTransaction().commit();
+        }
+
+        assertEquals("After", locationRepository.findById(location.getId()).orElseThrow().getName());
+    }
+
+    // Caches many more locations than the region holds, each read often enough to win admission
+    private void churn() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < REGION_SIZE * 5; i++) {
+            ids.add(locationRepository.save(new Location("Churn " + i, null, "City", null, null, null)).getId());
+        }
+        for (int round = 0; round < 5; round++) {
+            ids.forEach(id -> locationRepository.findById(id));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.property_finder.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks the batch and predicate paths that ReviewStatsCache and PrincipalCache rely on.
+ */
+class ReadThroughCacheTest {
+
+    private final ReadThroughCache<Long, String> cache = new ReadThroughCache<>(true, 100, 300);
+    private final List<List<Long>> batches = new ArrayList<>();
+
+    @Test
+    void getAllLoadsOnlyTheMissesInOneCallAndKeepsTheOrder() {
+        cache.put(2L, "two");
+
+        Map<Long, String> values = cache.getAll(List.of(3L, 2L, 1L, 3L, 404L), this::load);
+
+        assertEquals(List.of(3L, 2L, 1L), List.copyOf(values.keySet()));
+        assertEquals(List.of("value 3", "two", "value 1"), List.copyOf(values.values()));
+        assertEquals(List.of(List.of(3L, 1L, 404L)), batches);
+
+        cache.getAll(List.of(1L, 2L, 3L), this::load);
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void getAllDoesNotCacheWhatALoadRacingAnInvalidationRead() {
+        cache.getAll(List.of(1L, 2L), keys -> {
+            cache.invalidate(1L);
+            return load(keys);
+        });
+
+        assertNull(cache.getIfPresent(1L));
+        assertNull(cache.getIfPresent(2L));
+    }
+
+    @Test
+    void invalidateIfDropsMatchingValuesOnly() {
+        cache.getAll(List.of(1L, 2L, 3L), this::load);
+
+        cache.invalidateIf(value -> value.endsWith("2"));
+
+        assertNull(cache.getIfPresent(2L));
+        assertEquals("value 1", cache.getIfPresent(1L));
+        assertEquals("value 3", cache.getIfPresent(3L));
+    }
+
+    // Has a value for every key below 100
+    private Map<Long, String> load(List<Long> keys) {
+        batches.add(List.copyOf(keys));
+        return keys.stream().filter(key -> key < 100)
+                .collect(Collectors.toMap(Function.identity(), key -> "value " + key));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.property_finder.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks which database JPA work reaches when two H2 databases stand in for the primary and
+ * the replica, each holding a row with its own name. Tests run without a surrounding
+ * transaction so that each one starts the transactions whose routing it checks. The window
+ * after a write is measured on a clock the tests advance by hand.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.minimum-idle=1",
+        "app.datasource.primary-after-write-ms=" + ReadWriteRoutingDataSourceTest.PRIMARY_AFTER_WRITE_MS
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReadReplicaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadWriteRoutingDataSourceTest {
+
+    static final long PRIMARY_AFTER_WRITE_MS = 300;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void nameDatabases() {
+        name(primaryDataSource, "primary");
+        name(replicaDataSource, "replica");
+        // Also closes the window opened by a previous test's write
+        routingDataSource.setNanoTime(nanoTime::get);
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals("replica", inTransaction(true));
+    }
+
+    @Test
+    void readWriteAndNonTransactionalWorkUseThePrimary() {
+        assertEquals("primary", inTransaction(false));
+        assertEquals("primary", databaseName());
+    }
+
+    @Test
+    void readsStayOnThePrimaryBrieflyAfterACommittedWrite() {
+        inTransaction(false);
+        assertEquals("primary", inTransaction(true));
+
+        advanceMillis(PRIMARY_AFTER_WRITE_MS - 1);
+        assertEquals("primary", inTransaction(true));
+
+        advanceMillis(1);
+        assertEquals("replica", inTransaction(true));
+    }
+
+    @Test
+    void rolledBackWritesDoNotKeepReadsOnThePrimary() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            databaseName();
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", inTransaction(true));
+    }
+
+    private void advanceMillis(long millis) {
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private String inTransaction(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> databaseName());
+    }
+
+    private String databaseName() {
+        return (String) entityManager.createNativeQuery("select name from database_name").getSingleResult();
+    }
+
+    private static void name(HikariDataSource dataSource, String name) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists database_name (name varchar(16))");
+        jdbc.update("delete from database_name");
+        jdbc.update("insert into database_name (name) values (?)", name);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.property_finder.config;
+
+import com.example.property_finder.model.User;
+import com.example.property_finder.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that users created after the check get ids above rows that were inserted without
+ * the sequence, as IDENTITY ids were, and that a second run leaves an aligned sequence alone.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({SequenceAlignment.class, UserRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SequenceAlignmentTest {
+
+    @Autowired
+    private SequenceAlignment sequenceAlignment;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void newIdsStartAboveRowsInsertedWithoutTheSequence() {
+        jdbcTemplate.update("INSERT INTO users (id, email) VALUES (1, 'first@example.com'), (75, 'last@example.com')");
+
+        sequenceAlignment.afterSingletonsInstantiated();
+        User first = userRepository.save(user("new-first@example.com"));
+        assertTrue(first.getId() > 75, "id " + first.getId());
+
+        sequenceAlignment.afterSingletonsInstantiated();
+        User second = userRepository.save(user("new-second@example.com"));
+        assertTrue(second.getId() > first.getId(), "id " + second.getId());
+    }
+
+    private static User user(String email) {
+        return new User(null, email, null, "New", "User", null, User.UserRole.USER, null, null);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.property_finder.index;
+
+import com.example.property_finder.repository.PropertyRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Generates search index rows, in the shape returned by
+ * {@link PropertyRepository#findSearchIndexRows()}, for listings spread over a few cities
+ * and property types. Listing ids run from 1 to the requested count.
+ */
+final class GeneratedListings {
+
+    private static final String[] CITIES = {"Cairo", "Giza", "Alexandria", "Luxor", "Aswan"};
+    private static final String[] DISTRICTS = {"Maadi", "Zamalek", "Heliopolis", "Dokki", "Nasr City",
+            "Sheikh Zayed", "Smouha", "Karnak", "Downtown", "New Cairo"};
+    private static final String[] PROPERTY_TYPES = {"Apartment", "Villa", "Studio", "Duplex"};
+    private static final String[] LISTING_TYPES = {"For Sale", "For Rent"};
+
+    private GeneratedListings() {
+    }
+
+    static List<Object[]> rows(int listings) {
+        List<Object[]> rows = new ArrayList<>(listings);
+        Random random = new Random(42);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (long id = 1; id <= listings; id++) {
+            String listingType = LISTING_TYPES[random.nextInt(LISTING_TYPES.length)];
+            int bedrooms = 1 + random.nextInt(6);
+            double price = (listingType.equals("For Rent") ? 5_000 : 1_000_000) * bedrooms * (0.5 + random.nextDouble());
+            rows.add(new Object[]{id, "Listing " + id,
+                    DISTRICTS[random.nextInt(DISTRICTS.length)] + ", " + CITIES[random.nextInt(CITIES.length)],
+                    BigDecimal.valueOf(Math.round(price)), 40.0 + bedrooms * 30 + random.nextInt(60),
+                    bedrooms, 1 + random.nextInt(3), PROPERTY_TYPES[random.nextInt(PROPERTY_TYPES.length)],
+                    listingType, createdAt});
+        }
+        return rows;
+    }
+
+    static PropertySearchIndex loadedIndex(List<Object[]> rows) {
+        PropertyRepository propertyRepository = mock(PropertyRepository.class);
+        when(propertyRepository.findSearchIndexRows()).thenReturn(rows);
+        PropertySearchIndex index = new PropertySearchIndex(propertyRepository, true, 1024);
+        index.reload();
+        return index;
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.property_finder.index;
+
+import com.example.property_finder.event.LocationChangedEvent;
+import com.example.property_finder.model.Location;
+import com.example.property_finder.repository.LocationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares {@link LocationGeoIndex#findNearby} with a brute-force scan over the same points.
+ * The points crowd the poles and the antimeridian, where the cell walk widens and wraps.
+ * With 5 degree cells (2592 in all) and 2000 points, small and medium radii walk the cells
+ * while a radius covering the globe takes the full-scan shortcut.
+ */
+class LocationGeoIndexTest {
+
+    private static final double CELL_SIZE_DEGREES = 5;
+    private static final int LOCATIONS = 2000;
+
+    private static final double[][] CENTRES = {
+            {90, 0}, {89.9, 45}, {87, -170}, {-90, 0}, {-89.5, 120}, {-86, 179},
+            {10, 179.9}, {-20, -179.95}, {0, 180}, {0, -180}, {45, 540}, {60, -190},
+            {0, 0}, {30, 31.2}
+    };
+    private static final double[] RADII_KM = {0, 50, 300, 1500, 6000, 25000};
+    private static final int[] MAX_RESULTS = {1, 10, LOCATIONS * 2};
+
+    private final Random random = new Random(7);
+    private final Map<Long, double[]> expected = new LinkedHashMap<>();
+    private final List<Object[]> rows = new ArrayList<>();
+    private final LocationRepository locationRepository = mock(LocationRepository.class);
+
+    private LocationGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= LOCATIONS; id++) {
+            double[] position = randomPosition();
+            expected.put(id, position);
+            rows.add(new Object[]{id, position[0], position[1]});
+        }
+        when(locationRepository.findGeoIndexRows()).thenReturn(rows);
+        index = new LocationGeoIndex(locationRepository, true, CELL_SIZE_DEGREES);
+    }
+
+    @AfterEach
+    void shutdown() {
+        index.shutdown();
+    }
+
+    @Test
+    void findNearbyMatchesBruteForceNearThePolesAndTheAntimeridian() {
+        index.reload();
+
+        assertTrue(index.isReady());
+        assertEquals(LOCATIONS, index.size());
+        assertMatchesBruteForce();
+    }
+
+    @Test
+    void findNearbyMatchesBruteForceAfterMovesAndDeletes() {
+        index.reload();
+
+        for (long id = 1; id <= LOCATIONS; id += 3) {
+            move(id, randomPosition());
+        }
+        for (long id = 2; id <= LOCATIONS; id += 7) {
+            delete(id);
+        }
+        for (long id = 5; id <= LOCATIONS; id += 97) {
+            // Saving a location without coordinates takes it out of the index
+            move(id, null);
+        }
+        for (long id = LOCATIONS + 1; id <= LOCATIONS + 100; id++) {
+            move(id, randomPosition());
+        }
+
+        assertEquals(expected.size(), index.size());
+        assertMatchesBruteForce();
+    }
+
+    @Test
+    void reloadReplaysChangesMadeWhileReadingTheDatabase() {
+        when(locationRepository.findGeoIndexRows()).thenAnswer(invocation -> {
+            // Committed after the rows below were read, so only the replay can apply them
+            List<Object[]> snapshot = List.copyOf(rows);
+            for (long id = 1; id <= LOCATIONS; id += 4) {
+                move(id, randomPosition());
+            }
+            for (long id = 3; id <= LOCATIONS; id += 9) {
+                delete(id);
+            }
+            for (long id = LOCATIONS + 1; id <= LOCATIONS + 50; id++) {
+                move(id, randomPosition());
+            }
+            return snapshot;
+        });
+
+        index.reload();
+
+        assertTrue(index.isReady());
+        assertEquals(expected.size(), index.size());
+        assertMatchesBruteForce();
+    }
+
+    @Test
+    void findNearbyNeverReturnsALocationTwiceWhileItMovesBetweenCells() throws InterruptedException {
+        index.reload();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread mover = new Thread(() -> {
+            for (int i = 0; i < 200_000 && !done.get(); i++) {
+                // Back and forth across the antimeridian, between two cells inside the search box
+                index.onLocationChanged(saved(1L, new double[]{0, i % 2 == 0 ? 179.5 : -179.5}));
+            }
+            done.set(true);
+        });
+        mover.start();
+        try {
+            while (!done.get()) {
+                List<Long> ids = index.findNearby(0, 180, 200, LOCATIONS * 2);
+                assertEquals(ids.size(), new HashSet<>(ids).size(), "duplicate ids in " + ids);
+            }
+        } finally {
+            done.set(true);
+            mover.join();
+        }
+    }
+
+    private void assertMatchesBruteForce() {
+        for (double[] centre : CENTRES) {
+            for (double radius : RADII_KM) {
+                for (int maxResults : MAX_RESULTS) {
+                    assertEquals(bruteForce(centre[0], centre[1], radius, maxResults),
+                            index.findNearby(centre[0], centre[1], radius, maxResults),
+                            () -> "findNearby(" + centre[0] + ", " + centre[1] + ", " + radius + ", " + maxResults + ")");
+                }
+            }
+        }
+    }
+
+    private List<Long> bruteForce(double latitude, double longitude, double radiusInKm, int maxResults) {
+        Map<Long, Double> distances = new LinkedHashMap<>();
+        expected.forEach((id, position) -> {
+            double distance = GeoBoundingBox.distanceKm(latitude, longitude, position[0], position[1]);
+            if (distance <= radiusInKm) {
+                distances.put(id, distance);
+            }
+        });
+        return distances.keySet().stream()
+                .sorted(Comparator.comparingDouble((Long id) -> distances.get(id)).thenComparingLong(id -> id))
+                .limit(maxResults)
+                .toList();
+    }
+
+    // A third of the points within 6 degrees of a pole, a third within 5 degrees of the antimeridian
+    private double[] randomPosition() {
+        double latitude;
+        double longitude;
+        switch (random.nextInt(3)) {
+            case 0 -> {
+                latitude = (random.nextBoolean() ? 1 : -1) * (84 + random.nextDouble() * 6);
+                longitude = -180 + random.nextDouble() * 360;
+            }
+            case 1 -> {
+                latitude = -80 + random.nextDouble() * 160;
+                longitude = random.nextBoolean() ? 175 + random.nextDouble() * 5 : -180 + random.nextDouble() * 5;
+            }
+            default -> {
+                latitude = -90 + random.nextDouble() * 180;
+                longitude = -180 + random.nextDouble() * 360;
+            }
+        }
+        return new double[]{latitude, longitude};
+    }
+
+    private void move(long id, double[] position) {
+        if (position == null) {
+            expected.remove(id);
+        } else {
+            expected.put(id, position);
+        }
+        index.onLocationChanged(saved(id, position));
+    }
+
+    private void delete(long id) {
+        expected.remove(id);
+        index.onLocationChanged(LocationChangedEvent.deleted(id));
+    }
+
+    private static LocationChangedEvent saved(long id, double[] position) {
+        Location location = new Location();
+        location.setId(id);
+        if (position != null) {
+            location.setLatitude(position[0]);
+            location.setLongitude(position[1]);
+        }
+        return LocationChangedEvent.saved(location);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.property_finder.index;
+
+import com.example.property_finder.dto.PropertyDTO;
+import com.example.property_finder.dto.PropertySearchDTO;
+import com.example.property_finder.repository.PropertyRepository;
+import com.example.property_finder.service.SearchService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares searches as SearchService runs them with the JPQL LIKE search the index replaced,
+ * on H2 over 10k, 100k and 1M generated listings. Both must return the same listings. A
+ * selective search, answered by fetching the matches by id, must beat the LIKE query; a
+ * broad one, which SearchService hands to that query, must cost no more than it plus the
+ * lookup. SQL logging is off so it does not dominate the timings. Tagged as a benchmark so
+ * it only runs with {@code mvn test -Pbenchmark}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=OFF",
+        "app.search.index.max-fetch-fraction=" + PropertySearchIndexBenchmarkTest.MAX_FETCH_FRACTION
+})
+@Import({PropertyRepository.class, PropertySearchIndex.class, SearchService.class, FeaturedRanking.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("benchmark")
+class PropertySearchIndexBenchmarkTest {
+
+    static final double MAX_FETCH_FRACTION = 0.002;
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertySearchIndexBenchmarkTest.class);
+
+    // Enough timed calls for about two million scanned rows per search and path
+    private static final long SCANNED_ROWS_PER_SEARCH = 2_000_000;
+    private static final int MIN_ROUNDS = 9;
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final String[] CITIES = {"Cairo", "Giza", "Alexandria", "Luxor", "Aswan"};
+    private static final String[] DISTRICTS = {"Maadi", "Zamalek", "Heliopolis", "Dokki", "Nasr City",
+            "Sheikh Zayed", "Smouha", "Karnak", "Downtown", "New Cairo"};
+    private static final String[] FEATURES = {"Garden", "Sea View", "Penthouse", "Corner", "Furnished"};
+    private static final String[] PROPERTY_TYPES = {"Apartment", "Villa", "Studio", "Duplex"};
+    private static final String[] LISTING_TYPES = {"For Sale", "For Rent"};
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertySearchIndex searchIndex;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @ParameterizedTest(name = "{0} listings")
+    @ValueSource(ints = {10_000, 100_000, 1_000_000})
+    void searchServiceMatchesAndKeepsUpWithTheLikeQuery(int listings) {
+        seed(listings);
+        searchIndex.reload();
+        int rounds = (int) Math.max(MIN_ROUNDS, SCANNED_ROWS_PER_SEARCH / listings);
+        // The LIKE query runs in the same read-only transaction SearchService opens
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        for (Map.Entry<String, PropertySearchDTO> search : searches().entrySet()) {
+            PropertySearchDTO searchDTO = search.getValue();
+            List<Long> scanned = ids(propertyRepository.advancedSearchDTOs(searchDTO));
+            assertFalse(scanned.isEmpty(), search.getKey());
+            assertEquals(scanned, ids(searchService.searchPropertyDTOs(searchDTO)), search.getKey());
+
+            long[] nanos = medianNanos(rounds, List.of(
+                    () -> searchIndex.search(searchDTO),
+                    () -> searchService.searchPropertyDTOs(searchDTO),
+                    () -> readOnly.execute(status -> propertyRepository.advancedSearchDTOs(searchDTO))));
+            long lookupNanos = nanos[0];
+            long servedNanos = nanos[1];
+            long scannedNanos = nanos[2];
+            boolean fetchedById = scanned.size() <= MAX_FETCH_FRACTION * listings;
+            logger.info("{} listings, {} ({} matches, {}): index lookup {} ms, SearchService {} ms, LIKE query {} ms",
+                    listings, search.getKey(), scanned.size(), fetchedById ? "fetched by id" : "LIKE query",
+                    millis(lookupNanos), millis(servedNanos), millis(scannedNanos));
+
+            if (fetchedById) {
+                assertTrue(servedNanos < scannedNanos, search.getKey());
+            } else {
+                // Timing noise allowance on top of the lookup that found the search too broad
+                assertTrue(servedNanos < scannedNanos * 1.2 + lookupNanos, search.getKey());
+            }
+        }
+    }
+
+    private static Map<String, PropertySearchDTO> searches() {
+        Map<String, PropertySearchDTO> searches = new LinkedHashMap<>();
+
+        PropertySearchDTO district = new PropertySearchDTO();
+        district.setLocation("Zamalek");
+        district.setMinBedrooms(4);
+        searches.put("district and bedrooms", district);
+
+        PropertySearchDTO keyword = new PropertySearchDTO();
+        keyword.setKeyword("sea view");
+        keyword.setListingType("For Rent");
+        searches.put("keyword and listing type", keyword);
+
+        PropertySearchDTO range = new PropertySearchDTO();
+        range.setLocation("Alexandria");
+        range.setMinPrice(BigDecimal.valueOf(1_000_000));
+        range.setMaxPrice(BigDecimal.valueOf(1_500_000));
+        range.setPropertyType("Villa");
+        searches.put("city, price range and type", range);
+
+        PropertySearchDTO narrow = new PropertySearchDTO();
+        narrow.setLocation("Zamalek, Cairo");
+        narrow.setKeyword("penthouse");
+        narrow.setMinBedrooms(5);
+        narrow.setPropertyType("Duplex");
+        searches.put("address, keyword, bedrooms and type", narrow);
+
+        return searches;
+    }
+
+    // Median of rounds interleaved call by call, so that warm-up, caching and collection
+    // pauses weigh on every path alike and one pause does not decide a comparison
+    private static long[] medianNanos(int rounds, List<Supplier<List<?>>> calls) {
+        long[][] samples = new long[calls.size()][rounds];
+        int warmupRounds = Math.max(2, rounds / 5);
+        for (int round = 0; round < warmupRounds + rounds; round++) {
+            for (int i = 0; i < calls.size(); i++) {
+                long start = System.nanoTime();
+                calls.get(i).get();
+                if (round >= warmupRounds) {
+                    samples[i][round - warmupRounds] = System.nanoTime() - start;
+                }
+            }
+        }
+        long[] medians = new long[calls.size()];
+        for (int i = 0; i < medians.length; i++) {
+            Arrays.sort(samples[i]);
+            medians[i] = samples[i][rounds / 2];
+        }
+        return medians;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1e6);
+    }
+
+    private static List<Long> ids(List<PropertyDTO> properties) {
+        return properties.stream().map(PropertyDTO::getId).sorted().toList();
+    }
+
+    // Inserted over JDBC in batches; going through JPA would only make the setup slower
+    private void seed(int listings) {
+        jdbcTemplate.update("DELETE FROM properties");
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> rows = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < listings; i++) {
+            String listingType = LISTING_TYPES[random.nextInt(LISTING_TYPES.length)];
+            int bedrooms = 1 + random.nextInt(6);
+            double price = (listingType.equals("For Rent") ? 5_000 : 1_000_000) * bedrooms * (0.5 + random.nextDouble());
+            String title = bedrooms + " bedroom " + FEATURES[random.nextInt(FEATURES.length)] + " listing " + i;
+            String location = DISTRICTS[random.nextInt(DISTRICTS.length)] + ", " + CITIES[random.nextInt(CITIES.length)];
+            rows.add(new Object[]{i + 1L, title, BigDecimal.valueOf(Math.round(price)), location, bedrooms,
+                    1 + random.nextInt(3), 40.0 + bedrooms * 30 + random.nextInt(60),
+                    PROPERTY_TYPES[random.nextInt(PROPERTY_TYPES.length)], listingType, now, now});
+            if (rows.size() == SEED_BATCH_SIZE || i == listings - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO properties (id, title, price, location, bedrooms, bathrooms, "
+                        + "area, property_type, listing_type, created_at, updated_at, rating_sum, review_count) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0)", rows);
+                rows.clear();
+            }
+        }
+    }
+}
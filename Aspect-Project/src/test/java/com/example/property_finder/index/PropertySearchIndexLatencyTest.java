@@ -0,0 +1,51 @@
+package com.example.property_finder.index;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures nearest-neighbour retrieval latency over 100k generated listings. Tagged as a
+ * benchmark so it only runs with {@code mvn test -Pbenchmark}; the bound is deliberately
+ * loose so it only catches a regression to something like a per-query database scan.
+ */
+@Tag("benchmark")
+class PropertySearchIndexLatencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertySearchIndexLatencyTest.class);
+
+    private static final int LISTINGS = 100_000;
+    private static final int K = 10;
+    private static final int WARMUP_QUERIES = 200;
+    private static final int QUERIES = 1000;
+
+    @Test
+    void retrievalStaysFastAtOneHundredThousandListings() {
+        PropertySearchIndex index = GeneratedListings.loadedIndex(GeneratedListings.rows(LISTINGS));
+        Random random = new Random(7);
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            index.findSimilar(1 + random.nextInt(LISTINGS), K);
+        }
+
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            index.findSimilar(1 + random.nextInt(LISTINGS), K);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+
+        double p50 = nanos[QUERIES / 2] / 1e6;
+        double p99 = nanos[QUERIES * 99 / 100] / 1e6;
+        logger.info("findSimilar over {} listings: p50 {} ms, p99 {} ms, max {} ms",
+                LISTINGS, String.format("%.2f", p50), String.format("%.2f", p99),
+                String.format("%.2f", nanos[QUERIES - 1] / 1e6));
+        assertTrue(p99 < 100, "p99 was " + p99 + " ms");
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.property_finder.index;
+
+import com.example.property_finder.event.PropertyChangedEvent;
+import com.example.property_finder.model.Property;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks nearest-neighbour retrieval over 100k generated listings, including changes
+ * applied after the load. Its latency is measured by {@link PropertySearchIndexLatencyTest}.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PropertySearchIndexSimilarityTest {
+
+    private static final int LISTINGS = 100_000;
+    private static final int K = 10;
+
+    private List<Object[]> rows;
+    private PropertySearchIndex index;
+
+    @BeforeAll
+    void loadIndex() {
+        rows = GeneratedListings.rows(LISTINGS);
+        index = GeneratedListings.loadedIndex(rows);
+    }
+
+    @Test
+    void nearestListingsComeFirstAndExcludeTheSource() {
+        Object[] source = rows.get(0);
+        List<Long> similar = index.findSimilar(1L, K);
+
+        assertEquals(K, similar.size());
+        assertFalse(similar.contains(1L));
+        for (Long id : similar) {
+            assertEquals(source[8], rows.get(id.intValue() - 1)[8], "listing type of " + id);
+        }
+
+        // A copy of the source that differs only in price by one unit is the nearest
+        index.onPropertyChanged(PropertyChangedEvent.saved(copyOf(source, LISTINGS + 1L, BigDecimal.ONE)));
+        assertEquals(LISTINGS + 1L, index.findSimilar(1L, K).get(0));
+
+        index.onPropertyChanged(PropertyChangedEvent.deleted(LISTINGS + 1L));
+        assertEquals(similar, index.findSimilar(1L, K));
+        assertTrue(index.findSimilar(LISTINGS + 1L, K).isEmpty());
+    }
+
+    private static Property copyOf(Object[] row, long id, BigDecimal priceDelta) {
+        Property property = new Property(id, (String) row[1], null, ((BigDecimal) row[3]).add(priceDelta),
+                (String) row[2], (Integer) row[5], (Integer) row[6], (Double) row[4], (String) row[7],
+                (String) row[8], null);
+        property.setCreatedAt((LocalDateTime) row[9]);
+        return property;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.property_finder.repository;
+
+import com.example.property_finder.config.SecondLevelCacheConfig;
+import com.example.property_finder.model.Location;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the location lookups are served from the second-level and query caches once
+ * warm, and that a write is visible to the next lookup. Tests run without a surrounding
+ * transaction so that every repository call gets a fresh persistence context, as a request
+ * does, and only the shared caches can avoid the SQL.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({LocationRepository.class, SecondLevelCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LocationRepositoryCacheTest {
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Location city;
+
+    @BeforeEach
+    void createLocations() {
+        city = locationRepository.save(new Location("Cache City " + System.nanoTime(), null, "City", null, null, null));
+        locationRepository.save(new Location("First", null, "Neighborhood", city, null, null));
+        locationRepository.save(new Location("Second", null, "Neighborhood", city, null, null));
+    }
+
+    @Test
+    void repeatedLookupsIssueNoSql() {
+        assertNoSqlWhenWarm(() -> locationRepository.findRootLocations());
+        assertNoSqlWhenWarm(() -> locationRepository.findByType("Neighborhood"));
+        assertNoSqlWhenWarm(() -> locationRepository.findNeighborhoods(city.getName()));
+        assertNoSqlWhenWarm(() -> locationRepository.findById(city.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void writesInvalidateCachedQueries() {
+        assertEquals(2, locationRepository.findNeighborhoods(city.getName()).size());
+
+        locationRepository.save(new Location("Third", null, "Neighborhood", city, null, null));
+
+        assertEquals(3, locationRepository.findNeighborhoods(city.getName()).size());
+    }
+
+    private void assertNoSqlWhenWarm(Supplier<?> lookup) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Object warm = lookup.get();
+
+        long before = statistics.getPrepareStatementCount();
+        Object cached = lookup.get();
+
+        assertEquals(0, statistics.getPrepareStatementCount() - before);
+        if (warm instanceof List<?> warmList && cached instanceof List<?> cachedList) {
+            assertEquals(warmList.size(), cachedList.size());
+        } else {
+            assertEquals(warm, cached);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.property_finder.repository;
+
+import com.example.property_finder.model.Location;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the nearby-locations query on H2 over 50k locations spread across Egypt, with a
+ * neighbourhood-sized radius so that the bounding box leaves only a handful of rows for the
+ * distance calculation. Tagged as a benchmark so it only runs with
+ * {@code mvn test -Pbenchmark}; the bound is loose enough to only catch a return to
+ * computing the distance for every row.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=OFF"
+})
+@Import(LocationRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("benchmark")
+class LocationRepositoryNearbyLatencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationRepositoryNearbyLatencyTest.class);
+
+    private static final int LOCATIONS = 50_000;
+    private static final double MIN_LATITUDE = 22.0;
+    private static final double MAX_LATITUDE = 31.5;
+    private static final double MIN_LONGITUDE = 25.0;
+    private static final double MAX_LONGITUDE = 35.0;
+    private static final double RADIUS_KM = 5.0;
+    private static final int MAX_RESULTS = 20;
+    private static final int WARMUP_QUERIES = 100;
+    private static final int QUERIES = 500;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void nearbyQueryStaysFastAtFiftyThousandLocations() {
+        seed();
+        Random random = new Random(7);
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            nearbyRandomPoint(random);
+        }
+
+        long[] nanos = new long[QUERIES];
+        int nonEmpty = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            List<Location> nearby = nearbyRandomPoint(random);
+            nanos[i] = System.nanoTime() - start;
+            if (!nearby.isEmpty()) {
+                nonEmpty++;
+            }
+        }
+        Arrays.sort(nanos);
+
+        double p50 = nanos[QUERIES / 2] / 1e6;
+        double p99 = nanos[QUERIES * 99 / 100] / 1e6;
+        logger.info("findNearbyLocations over {} locations, {} km: p50 {} ms, p99 {} ms, max {} ms, {} of {} non-empty",
+                LOCATIONS, RADIUS_KM, String.format("%.2f", p50), String.format("%.2f", p99),
+                String.format("%.2f", nanos[QUERIES - 1] / 1e6), nonEmpty, QUERIES);
+        assertTrue(nonEmpty > 0, "no query found any location");
+        assertTrue(p99 < 100, "p99 was " + p99 + " ms");
+    }
+
+    private List<Location> nearbyRandomPoint(Random random) {
+        double latitude = MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE);
+        double longitude = MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE);
+        List<Location> nearby = locationRepository.findNearbyLocations(latitude, longitude, RADIUS_KM, MAX_RESULTS);
+        assertFalse(nearby.size() > MAX_RESULTS);
+        return nearby;
+    }
+
+    // Inserted over JDBC in batches; going through JPA would only make the setup slower
+    private void seed() {
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM locations", Long.class) + 1;
+
+        List<Object[]> rows = new ArrayList<>(LOCATIONS);
+        for (int i = 0; i < LOCATIONS; i++) {
+            rows.add(new Object[]{firstId + i, "Location " + i, "Neighborhood",
+                    MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE),
+                    MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE), now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO locations (id, name, type, latitude, longitude, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+}
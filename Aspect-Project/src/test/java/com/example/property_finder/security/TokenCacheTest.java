@@ -0,0 +1,89 @@
+package com.example.property_finder.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the cache over a stub verifier that accepts any token except "bad", issued by
+ * "expired" an hour before now and otherwise expiring an hour after, and records which
+ * tokens reached it. Also checks that the Firebase verifier reports any failure as an
+ * invalid token, which the auth filter answers with 401.
+ */
+class TokenCacheTest {
+
+  private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+  private final List<String> verified = new ArrayList<>();
+  private final TokenVerifier verifier = idToken -> {
+    verified.add(idToken);
+    if (idToken.equals("bad")) {
+      throw new InvalidTokenException("Bad signature");
+    }
+    Instant expiresAt = idToken.equals("expired") ? NOW.minusSeconds(3600) : NOW.plusSeconds(3600);
+    return new VerifiedToken("uid-" + idToken, idToken + "@example.com", expiresAt);
+  };
+
+  private TokenCache cache;
+
+  @BeforeEach
+  void createCache() {
+    cache = new TokenCache(verifier, true, 2);
+    cache.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+  }
+
+  @Test
+  void repeatRequestsSkipVerificationUntilTheTokenExpires() throws InvalidTokenException {
+    assertEquals("a@example.com", cache.verify("a").getEmail());
+    assertEquals("a@example.com", cache.verify("a").getEmail());
+    assertEquals(List.of("a"), verified);
+
+    cache.setClock(Clock.fixed(NOW.plusSeconds(3600), ZoneOffset.UTC));
+    cache.verify("a");
+    assertEquals(List.of("a", "a"), verified);
+    assertEquals(1L, cache.getStats().get("hits"));
+    assertEquals(2L, cache.getStats().get("misses"));
+  }
+
+  @Test
+  void expiredAndRejectedTokensAreNotCached() throws InvalidTokenException {
+    assertThrows(InvalidTokenException.class, () -> cache.verify("bad"));
+    assertThrows(InvalidTokenException.class, () -> cache.verify("bad"));
+    assertEquals(List.of("bad", "bad"), verified);
+
+    // Accepted by the verifier but already past its exp claim here
+    cache.verify("expired");
+    cache.verify("expired");
+    assertEquals(List.of("bad", "bad", "expired", "expired"), verified);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void leastRecentlyUsedTokenIsEvictedWhenFull() throws InvalidTokenException {
+    cache.verify("a");
+    cache.verify("b");
+    cache.verify("a");
+    cache.verify("c");
+
+    assertEquals(2, cache.size());
+    assertEquals(1L, cache.getStats().get("evictions"));
+
+    cache.verify("a");
+    cache.verify("b");
+    assertEquals(List.of("a", "b", "c", "b"), verified);
+  }
+
+  @Test
+  void firebaseFailuresOtherThanBadTokensAreInvalidTokens() {
+    // No FirebaseApp is initialised here, so FirebaseAuth.getInstance() itself fails
+    assertThrows(InvalidTokenException.class, () -> new FirebaseTokenVerifier().verify("token"));
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.property_finder.service;
+
+import com.example.property_finder.dto.PropertyDTO;
+import com.example.property_finder.index.FeaturedRanking;
+import com.example.property_finder.index.PropertySearchIndex;
+import com.example.property_finder.repository.PropertyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that featured listings are served from the newest listings while the ranking has
+ * not completed its first refresh, rather than as an empty list.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({PropertyRepository.class, SearchService.class, PropertySearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FeaturedFallbackTest {
+
+    @MockitoBean
+    private FeaturedRanking featuredRanking;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void newestListingsStandInUntilTheRankingIsReady() {
+        when(featuredRanking.isReady()).thenReturn(false);
+        when(featuredRanking.getTopK()).thenReturn(2);
+
+        long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM properties", Long.class) + 1;
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp[] createdAt = {null, Timestamp.valueOf(now.minusDays(2)), Timestamp.valueOf(now.minusDays(1)),
+                Timestamp.valueOf(now.minusDays(3))};
+        for (int i = 0; i < createdAt.length; i++) {
+            jdbcTemplate.update("INSERT INTO properties (id, title, price, location, property_type, listing_type, "
+                            + "created_at, updated_at, rating_sum, review_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, 0)",
+                    firstId + i, "Listing " + i, BigDecimal.valueOf(1_000_000), "Maadi, Cairo", "Apartment",
+                    "For Sale", createdAt[i], createdAt[i]);
+        }
+
+        List<Long> featured = searchService.findFeaturedProperties().stream().map(PropertyDTO::getId).toList();
+
+        assertEquals(List.of(firstId + 2, firstId + 1), featured);
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.property_finder.service;
+
+import com.example.property_finder.dto.PropertyImportJobDTO;
+import com.example.property_finder.repository.PropertyRepository;
+import com.example.property_finder.repository.UserRepository;
+import com.example.property_finder.validation.PropertyValidator;
+import com.example.property_finder.validation.ValidatorRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs imports end to end against H2 with small chunks and a small worker pool, so that
+ * chunking, the blocked reader and the per-row retry after a failed chunk are all exercised.
+ * Each test tags its listings with its own title prefix and counts only those.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({PropertyService.class, PropertyCache.class, PropertyRepository.class, UserRepository.class,
+        ValidatorRegistry.class, PropertyValidator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PropertyImportServiceTest {
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private ValidatorRegistry validatorRegistry;
+
+    private PropertyImportService importService;
+
+    @AfterEach
+    void stopWorkers() {
+        if (importService != null) {
+            importService.shutdown();
+        }
+    }
+
+    @Test
+    void jsonElementsThatAreNotPropertiesFailAlone() {
+        String prefix = prefix();
+        String body = "[" + json(prefix + "1", "100") + ","
+                + json(prefix + "2", "\"a lot\"") + ","
+                + json(prefix + "3", "300") + ","
+                + "\"not an object\","
+                + json(prefix + "5", "500") + "]";
+
+        PropertyImportJobDTO job = runImport(importer(2, 2, 1), body, PropertyImportService.Format.JSON);
+
+        assertCounts(job, PropertyImportJobDTO.Status.COMPLETED, 5, 3, 2);
+        assertErrorRows(job, 2, 4);
+        assertEquals(3, imported(prefix));
+    }
+
+    @Test
+    void malformedJsonStopsReadingButKeepsTheRowsBeforeIt() {
+        String prefix = prefix();
+        String body = "[" + json(prefix + "1", "100") + ","
+                + json(prefix + "2", "200") + ","
+                + json(prefix + "3", "300") + ","
+                + "{\"title\": }, " + json(prefix + "5", "500") + "]";
+
+        PropertyImportJobDTO job = runImport(importer(2, 2, 1), body, PropertyImportService.Format.JSON);
+
+        assertCounts(job, PropertyImportJobDTO.Status.FAILED, 4, 3, 0);
+        assertTrue(job.getMessage().startsWith("Stopped reading at row 4"), job.getMessage());
+        assertEquals(3, imported(prefix));
+    }
+
+    @Test
+    void csvRowWithABadNumberFailsAlone() {
+        String prefix = prefix();
+        String body = "title,price,location,bedrooms\n"
+                + prefix + "1,100,\"Maadi, Cairo\",2\n"
+                + prefix + "2,12x,\"Maadi, Cairo\",2\n"
+                + prefix + "3,300,\"Maadi, Cairo\",two\n"
+                + prefix + "4,400,\"Maadi, Cairo\",3\n";
+
+        PropertyImportJobDTO job = runImport(importer(2, 2, 1), body, PropertyImportService.Format.CSV);
+
+        assertCounts(job, PropertyImportJobDTO.Status.COMPLETED, 4, 2, 2);
+        assertErrorRows(job, 2, 3);
+        assertTrue(job.getErrors().get(0).getMessage().startsWith("Invalid number"));
+        assertEquals(2, imported(prefix));
+    }
+
+    @Test
+    void aRowTheDatabaseRejectsOnlyFailsItself() {
+        String prefix = prefix();
+        // Locations are limited to 255 characters by the column, not by validation
+        String body = "[" + json(prefix + "1", "100") + ","
+                + json(prefix + "2", "200", "x".repeat(300)) + ","
+                + json(prefix + "3", "300") + ","
+                + json(prefix + "4", "-1") + ","
+                + json(prefix + "5", "500") + "]";
+
+        PropertyImportJobDTO job = runImport(importer(5, 1, 1), body, PropertyImportService.Format.JSON);
+
+        assertCounts(job, PropertyImportJobDTO.Status.COMPLETED, 5, 3, 2);
+        assertErrorRows(job, 2, 4);
+        assertTrue(job.getErrors().get(0).getMessage().startsWith("Not imported"));
+        assertEquals(3, imported(prefix));
+    }
+
+    @Test
+    void aReaderFasterThanTheWorkersWaitsInsteadOfDroppingChunks() {
+        String prefix = prefix();
+        StringJoiner body = new StringJoiner(",", "[", "]");
+        for (int i = 1; i <= 60; i++) {
+            body.add(json(prefix + i, String.valueOf(i * 100)));
+        }
+
+        PropertyImportJobDTO job = runImport(importer(1, 1, 1), body.toString(), PropertyImportService.Format.JSON);
+
+        assertCounts(job, PropertyImportJobDTO.Status.COMPLETED, 60, 60, 0);
+        assertEquals(60, imported(prefix));
+    }
+
+    private PropertyImportService importer(int chunkSize, int workers, int queueCapacity) {
+        importService = new PropertyImportService(propertyService, validatorRegistry,
+                Jackson2ObjectMapperBuilder.json().build(), chunkSize, workers, queueCapacity, 100, 60, false);
+        return importService;
+    }
+
+    private static PropertyImportJobDTO runImport(PropertyImportService importService, String body,
+                                                  PropertyImportService.Format format) {
+        InputStream input = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        String jobId = importService.startImport(input, format, null).getJobId();
+
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            PropertyImportJobDTO job = importService.getJob(jobId).orElseThrow();
+            if (job.getStatus() != PropertyImportJobDTO.Status.RUNNING) {
+                assertNotNull(job.getFinishedAt());
+                return job;
+            }
+            Thread.onSpinWait();
+        }
+        return fail("Import " + jobId + " did not finish");
+    }
+
+    private static void assertCounts(PropertyImportJobDTO job, PropertyImportJobDTO.Status status,
+                                     long read, long imported, long failed) {
+        assertEquals(status, job.getStatus(), job.getMessage());
+        assertEquals(read, job.getRowsRead(), "rows read");
+        assertEquals(imported, job.getRowsImported(), "rows imported");
+        assertEquals(failed, job.getRowsFailed(), "rows failed");
+        assertEquals(failed, job.getErrors().size(), "row errors");
+    }
+
+    private static void assertErrorRows(PropertyImportJobDTO job, long... rows) {
+        assertEquals(rows.length, job.getErrors().size());
+        for (int i = 0; i < rows.length; i++) {
+            assertEquals(rows[i], job.getErrors().get(i).getRow());
+        }
+    }
+
+    private long imported(String prefix) {
+        return propertyService.getAllProperties().stream()
+                .filter(property -> property.getTitle().startsWith(prefix))
+                .count();
+    }
+
+    private static String prefix() {
+        return "Import " + System.nanoTime() + " ";
+    }
+
+    private static String json(String title, String price) {
+        return json(title, price, "Maadi, Cairo");
+    }
+
+    private static String json(String title, String price, String location) {
+        return "{\"title\": \"" + title + "\", \"price\": " + price + ", \"location\": \"" + location
+                + "\", \"bedrooms\": 2, \"propertyType\": \"Apartment\"}";
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.property_finder.service;
+
+import com.example.property_finder.dto.PropertySearchDTO;
+import com.example.property_finder.index.FeaturedRanking;
+import com.example.property_finder.index.PropertySearchIndex;
+import com.example.property_finder.model.Property;
+import com.example.property_finder.model.User;
+import com.example.property_finder.repository.PropertyRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that the listing lists are read with a fixed number of statements, whatever the
+ * number of listings: every listing has its own owner, so loading owners one by one would
+ * show up as statements growing with the data. The caches are bypassed so that each call
+ * reaches the database.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({PropertyRepository.class, SearchService.class, PropertySearchIndex.class, FeaturedRanking.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PropertyListStatementCountTest {
+
+    private static final int LISTINGS = 50;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private PropertySearchIndex searchIndex;
+
+    @Autowired
+    private FeaturedRanking featuredRanking;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private PropertyCache uncachedLists;
+    private User agency;
+    private int seeded;
+
+    @BeforeEach
+    void createAgency() {
+        uncachedLists = new PropertyCache(propertyRepository, false, 300, 10_000, 1_000);
+        agency = new TransactionTemplate(transactionManager).execute(status -> {
+            User user = owner("agency-" + System.nanoTime());
+            entityManager.persist(user);
+            return user;
+        });
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithTheNumberOfListings() {
+        seed(LISTINGS);
+        Map<String, Long> small = countStatements();
+
+        seed(LISTINGS * 9);
+        Map<String, Long> large = countStatements();
+
+        assertEquals(small, large);
+        small.forEach((path, statements) -> assertEquals(1L, statements, path));
+    }
+
+    private Map<String, Long> countStatements() {
+        searchIndex.reload();
+        featuredRanking.refresh();
+        Long anyListing = searchIndex.search(new PropertySearchDTO()).get(0);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("all", statements(() -> uncachedLists.getAllPropertyDTOs()));
+        counts.put("byOwner", statements(() -> uncachedLists.getPropertyDTOsByOwner(agency.getId())));
+        counts.put("search", statements(() -> searchService.searchPropertyDTOs(new PropertySearchDTO())));
+        counts.put("featured", statements(() -> searchService.findFeaturedProperties()));
+        counts.put("similar", statements(() -> searchService.findSimilarProperties(anyListing, 10)));
+        return counts;
+    }
+
+    private long statements(Supplier<? extends List<?>> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertFalse(call.get().isEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Adds listings in pairs: one with an owner of its own and one belonging to the agency
+    private void seed(int pairs) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < pairs; i++) {
+                User owner = owner("owner-" + seeded + "-" + System.nanoTime());
+                entityManager.persist(owner);
+                entityManager.persist(listing(owner));
+                entityManager.persist(listing(agency));
+                seeded++;
+            }
+        });
+    }
+
+    private Property listing(User owner) {
+        return new Property(null, "Listing " + seeded, null, BigDecimal.valueOf(100_000 + seeded),
+                "Maadi, Cairo", 1 + seeded % 5, 1 + seeded % 3, 80.0 + seeded % 100, "Apartment", "For Sale",
+                owner);
+    }
+
+    private static User owner(String name) {
+        return new User(null, name + "@example.com", null, name, "Owner", null, User.UserRole.AGENT, null, null);
+    }
+}
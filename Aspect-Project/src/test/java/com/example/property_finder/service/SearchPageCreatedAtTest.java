@@ -0,0 +1,127 @@
+package com.example.property_finder.service;
+
+import com.example.property_finder.dto.CursorPageDTO;
+import com.example.property_finder.dto.PropertySearchDTO;
+import com.example.property_finder.dto.PropertySortField;
+import com.example.property_finder.dto.SearchCursor;
+import com.example.property_finder.index.FeaturedRanking;
+import com.example.property_finder.index.PropertySearchIndex;
+import com.example.property_finder.model.Property;
+import com.example.property_finder.repository.PropertyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pages through listings sorted by createdAt, some of which have none, two at a time so
+ * that page boundaries fall between listings without a creation time. The index and the
+ * database must both return every listing once, in the same order, missing times first
+ * when ascending.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({PropertyRepository.class, SearchService.class, PropertySearchIndex.class, FeaturedRanking.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SearchPageCreatedAtTest {
+
+    private static final String LOCATION = "Keyset Gardens, Cairo";
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertySearchIndex searchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> ascending = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM properties WHERE location = ?", LOCATION);
+        long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM properties", Long.class) + 1;
+        Timestamp earlier = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 12, 0));
+        Timestamp later = Timestamp.valueOf(LocalDateTime.of(2025, 6, 1, 12, 0));
+
+        // Ids in ascending (createdAt, id) order: three without a time, then two with one
+        Timestamp[] createdAt = {null, null, null, earlier, later};
+        for (int i = 0; i < createdAt.length; i++) {
+            long id = firstId + i;
+            jdbcTemplate.update("INSERT INTO properties (id, title, price, location, property_type, listing_type, "
+                            + "created_at, updated_at, rating_sum, review_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, 0)",
+                    id, "Listing " + i, BigDecimal.valueOf(1_000_000), LOCATION, "Apartment", "For Sale",
+                    createdAt[i], createdAt[i]);
+            ascending.add(id);
+        }
+        searchIndex.reload();
+    }
+
+    @Test
+    void indexPagesAcrossListingsWithoutCreationTime() {
+        assertEquals(ascending, pageThroughIndex(false));
+        assertEquals(ascending.reversed(), pageThroughIndex(true));
+    }
+
+    @Test
+    void databasePagesAcrossListingsWithoutCreationTime() {
+        assertEquals(ascending, pageThroughDatabase(false));
+        assertEquals(ascending.reversed(), pageThroughDatabase(true));
+    }
+
+    private List<Long> pageThroughIndex(boolean descending) {
+        PropertySearchDTO searchDTO = search(descending);
+        List<Long> ids = new ArrayList<>();
+        CursorPageDTO<Property> page;
+        do {
+            page = searchService.searchPropertiesPage(searchDTO);
+            page.getItems().forEach(property -> ids.add(property.getId()));
+            searchDTO.setCursor(page.getNextCursor());
+        } while (page.isHasMore());
+        return ids;
+    }
+
+    // Runs the JPQL keyset query SearchService falls back to while the index is loading
+    private List<Long> pageThroughDatabase(boolean descending) {
+        PropertySearchDTO searchDTO = search(descending);
+        PropertySortField sortField = PropertySortField.CREATED_AT;
+        List<Long> ids = new ArrayList<>();
+        SearchCursor after = null;
+        List<Property> rows;
+        do {
+            rows = propertyRepository.advancedSearchPage(searchDTO, sortField, descending, after, PAGE_SIZE);
+            rows.forEach(property -> ids.add(property.getId()));
+            if (!rows.isEmpty()) {
+                Property last = rows.get(rows.size() - 1);
+                String token = new SearchCursor(sortField.valueOf(last), last.getId()).encode(sortField, descending);
+                after = SearchCursor.decode(token, sortField, descending);
+            }
+        } while (rows.size() == PAGE_SIZE);
+        return ids;
+    }
+
+    private static PropertySearchDTO search(boolean descending) {
+        PropertySearchDTO searchDTO = new PropertySearchDTO();
+        searchDTO.setLocation(LOCATION);
+        searchDTO.setSortBy(PropertySortField.CREATED_AT.getName());
+        searchDTO.setSortDirection(descending ? "desc" : "asc");
+        searchDTO.setLimit(PAGE_SIZE);
+        return searchDTO;
+    }
+}
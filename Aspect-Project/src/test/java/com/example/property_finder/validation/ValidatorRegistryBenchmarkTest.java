@@ -0,0 +1,80 @@
+package com.example.property_finder.validation;
+
+import com.example.property_finder.model.Property;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares property validation through the registry with the reflective field reads
+ * ValidationAspect used to do on every save, in a plain timing loop over the same listing.
+ * Tagged as a benchmark so it only runs with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ValidatorRegistryBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ValidatorRegistryBenchmarkTest.class);
+
+    private static final int WARMUP_CALLS = 1_000_000;
+    private static final int CALLS = 5_000_000;
+
+    private final Property property = new Property(1L, "Sunny flat", "Near the metro", BigDecimal.valueOf(1_500_000),
+            "Maadi, Cairo", 2, 1, 90.0, "Apartment", "For Sale", null);
+
+    // Keeps the JIT from discarding the reflective reads
+    private long sink;
+
+    @Test
+    void registryOutrunsReflectiveValidation() throws ReflectiveOperationException {
+        ValidatorRegistry validatorRegistry = new ValidatorRegistry();
+        new PropertyValidator(validatorRegistry);
+
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            validateReflectively(property);
+            validatorRegistry.validate(property);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < CALLS; i++) {
+            validateReflectively(property);
+        }
+        double reflectiveNanos = (System.nanoTime() - start) / (double) CALLS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < CALLS; i++) {
+            validatorRegistry.validate(property);
+        }
+        double registryNanos = (System.nanoTime() - start) / (double) CALLS;
+
+        logger.info("Property validation over {} calls: reflective {} ns/op, registry {} ns/op (sink {})",
+                CALLS, String.format("%.1f", reflectiveNanos), String.format("%.1f", registryNanos), sink);
+        assertTrue(registryNanos < reflectiveNanos,
+                "registry " + registryNanos + " ns/op vs reflective " + reflectiveNanos + " ns/op");
+    }
+
+    // The field reads ValidationAspect did before the registry; the checks themselves are the same
+    private void validateReflectively(Object target) throws ReflectiveOperationException {
+        String title = fieldValue(target, "title", String.class);
+        String description = fieldValue(target, "description", String.class);
+        BigDecimal price = fieldValue(target, "price", BigDecimal.class);
+        String location = fieldValue(target, "location", String.class);
+        if (title == null || title.trim().isEmpty() || price.compareTo(BigDecimal.ZERO) <= 0
+                || location == null || location.trim().isEmpty()) {
+            throw new IllegalStateException("Listing should be valid");
+        }
+        sink += description.length();
+    }
+
+    private static <T> T fieldValue(Object object, String fieldName, Class<T> fieldType)
+            throws ReflectiveOperationException {
+        Field field = object.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return fieldType.cast(field.get(object));
+    }
+}